@@ -25,7 +25,7 @@ echo "Testing alert-manager integration..."
 # Send an INFO alert
 echo -n "Sending INFO alert... "
 response=$(send_alert "Test Info Alert" "This is a test info message" "INFO" "test-script")
-if [ "$response" = "200" ]; then
+if [ "$response" = "202" ]; then
     echo "✓ Success"
 else
     echo "✗ Failed (HTTP $response)"
@@ -34,7 +34,7 @@ fi
 # Send a WARNING alert
 echo -n "Sending WARNING alert... "
 response=$(send_alert "Test Warning Alert" "This is a test warning message" "WARNING" "test-script")
-if [ "$response" = "200" ]; then
+if [ "$response" = "202" ]; then
     echo "✓ Success"
 else
     echo "✗ Failed (HTTP $response)"
@@ -43,7 +43,7 @@ fi
 # Send an ERROR alert
 echo -n "Sending ERROR alert... "
 response=$(send_alert "Test Error Alert" "This is a test error message" "ERROR" "test-script")
-if [ "$response" = "200" ]; then
+if [ "$response" = "202" ]; then
     echo "✓ Success"
 else
     echo "✗ Failed (HTTP $response)"
@@ -52,7 +52,7 @@ fi
 # Send a CRITICAL alert
 echo -n "Sending CRITICAL alert... "
 response=$(send_alert "Test Critical Alert" "This is a test critical message" "CRITICAL" "test-script")
-if [ "$response" = "200" ]; then
+if [ "$response" = "202" ]; then
     echo "✓ Success"
 else
     echo "✗ Failed (HTTP $response)"
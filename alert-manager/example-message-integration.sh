@@ -25,7 +25,7 @@ echo "Testing alert-manager integration..."
 # Send a message to Minecraft server only
 echo -n "Sending message to Minecraft server... "
 response=$(send_alert "Hello from alert-manager!" '["MINECRAFT"]')
-if [ "$response" = "200" ]; then
+if [ "$response" = "202" ]; then
     echo "✓ Success"
 else
     echo "✗ Failed (HTTP $response)"
@@ -34,7 +34,7 @@ fi
 # Send a message to Discord only
 echo -n "Sending alert to Discord... "
 response=$(send_alert "This is a test Discord alert" '["DISCORD"]' "INFO" "test-script")
-if [ "$response" = "200" ]; then
+if [ "$response" = "202" ]; then
     echo "✓ Success"
 else
     echo "✗ Failed (HTTP $response)"
@@ -46,7 +46,7 @@ response=$(curl -X POST "$ALERT_MANAGER_URL/api/alerts" \
   -H "Content-Type: application/json" \
   -s -o /dev/null -w "%{http_code}" \
   -d '{"message":"This goes everywhere","level":"INFO","source":"test-script"}')
-if [ "$response" = "200" ]; then
+if [ "$response" = "202" ]; then
     echo "✓ Success"
 else
     echo "✗ Failed (HTTP $response)"
@@ -1,8 +1,10 @@
 package com.openmc.alertmanager.controller;
 
 import com.openmc.alertmanager.model.Alert;
-import com.openmc.alertmanager.service.AlertService;
+import com.openmc.alertmanager.service.AlertDeduplicator;
+import com.openmc.alertmanager.service.AlertDispatcher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,29 +16,30 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class AlertController {
 
-    private final AlertService alertService;
+    private final AlertDispatcher alertDispatcher;
+    private final AlertDeduplicator alertDeduplicator;
 
-    public AlertController(AlertService alertService) {
-        this.alertService = alertService;
+    public AlertController(AlertDispatcher alertDispatcher, AlertDeduplicator alertDeduplicator) {
+        this.alertDispatcher = alertDispatcher;
+        this.alertDeduplicator = alertDeduplicator;
     }
 
     /**
-     * Endpoint for sending alerts
+     * Endpoint for sending alerts. The alert is queued and sent in the background,
+     * unless the same alert was sent recently.
      *
      * @param alert The alert to send
-     * @return Response indicating success or failure
+     * @return 202 once the alert is queued or suppressed as a duplicate, or 503 if the queue is full
      */
     @PostMapping
     public ResponseEntity<String> sendAlert(@RequestBody Alert alert) {
         log.info("Received alert via API: {} from source: {}", alert.getTitle(), alert.getSource());
         
-        try {
-            alertService.sendAlert(alert);
-            return ResponseEntity.ok("Alert sent successfully");
-        } catch (Exception e) {
-            log.error("Failed to send alert", e);
-            return ResponseEntity.internalServerError().body("Failed to send alert");
-        }
+        return switch (alertDeduplicator.submit(alert, alertDispatcher::submit)) {
+            case ACCEPTED -> ResponseEntity.accepted().body("Alert accepted");
+            case SUPPRESSED -> ResponseEntity.accepted().body("Alert suppressed as a duplicate");
+            case REJECTED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Alert queue is full");
+        };
     }
 
     /**
@@ -5,11 +5,26 @@ package com.openmc.alertmanager.exception;
  */
 public class AlertException extends Exception {
     
+    private final int sentCount;
+    
     public AlertException(String message) {
-        super(message);
+        this(message, null, 0);
     }
     
     public AlertException(String message, Throwable cause) {
+        this(message, cause, 0);
+    }
+    
+    public AlertException(String message, Throwable cause, int sentCount) {
         super(message, cause);
+        this.sentCount = sentCount;
+    }
+    
+    /**
+     * @return how many alerts at the start of the batch were delivered before the
+     *         failure, so they need not be sent again
+     */
+    public int getSentCount() {
+        return sentCount;
     }
 }
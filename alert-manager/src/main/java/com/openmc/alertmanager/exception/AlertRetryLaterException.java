@@ -0,0 +1,26 @@
+package com.openmc.alertmanager.exception;
+
+/**
+ * Exception thrown when a destination is rate limited for longer than the time left
+ * to send, so the alert should be sent again once the limit has reset
+ */
+public class AlertRetryLaterException extends AlertException {
+
+    private final long retryAfterMs;
+
+    public AlertRetryLaterException(String message, long retryAfterMs) {
+        this(message, retryAfterMs, 0);
+    }
+
+    public AlertRetryLaterException(String message, long retryAfterMs, int sentCount) {
+        super(message, null, sentCount);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * @return how long to wait before sending again, in milliseconds
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,184 @@
+package com.openmc.alertmanager.service;
+
+import com.openmc.alertmanager.model.Alert;
+import com.openmc.alertmanager.model.AlertDestination;
+import com.openmc.alertmanager.model.AlertLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Suppresses repeats of an alert, so a crash-restart loop or a backup that keeps
+ * failing does not send the same alert to Discord and the server over and over.
+ * <p>
+ * Alerts with the same source, title, level, message and destinations are
+ * duplicates, so alerts that differ only in their message, such as the countdown
+ * before a restart, all go out. After one is accepted for sending, duplicates are
+ * suppressed until the window has passed; the next one after that is sent with a
+ * note of how many were suppressed. An alert that is still flapping at the end of
+ * the window is therefore sent again once per window.
+ * <p>
+ * An alert is forgotten once it has not been seen for a whole window, and the
+ * oldest are forgotten first when more than the maximum number of alerts are being
+ * tracked, so memory stays bounded.
+ */
+@Component
+@Slf4j
+public class AlertDeduplicator {
+
+    private final long windowMs;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    // Ordered from least to most recently seen
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter suppressedCounter;
+
+    /**
+     * What happened to an alert passed to {@link #submit}
+     */
+    public enum Outcome {
+        ACCEPTED,
+        SUPPRESSED,
+        REJECTED
+    }
+
+    private record Key(String source, String title, AlertLevel level, String message,
+                       Set<AlertDestination> destinations) {
+    }
+
+    private static final class Entry {
+        private long sentAtMs;
+        private long lastSeenMs;
+        private int suppressed;
+    }
+
+    @Autowired
+    public AlertDeduplicator(MeterRegistry meterRegistry,
+                             @Value("${alert.dedup.window-seconds:300}") long windowSeconds,
+                             @Value("${alert.dedup.max-keys:10000}") int maxKeys) {
+        this(meterRegistry, TimeUnit.SECONDS.toMillis(windowSeconds), maxKeys, System::currentTimeMillis);
+    }
+
+    AlertDeduplicator(MeterRegistry meterRegistry, long windowMs, int maxKeys, LongSupplier clock) {
+        this.windowMs = windowMs;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.suppressedCounter = Counter.builder("alerts.suppressed")
+            .description("Alerts not sent because the same alert was sent within the dedup window")
+            .register(meterRegistry);
+        Gauge.builder("alerts.dedup.keys", this, AlertDeduplicator::size)
+            .description("Distinct alerts tracked for deduplication")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Submit an alert unless it is a duplicate of one recently sent. An alert that is
+     * not a duplicate has a note of the duplicates suppressed since the last one added
+     * to its message.
+     * <p>
+     * The check, the submission and the record of the alert as sent happen as one
+     * step, so of several identical alerts arriving together only one is submitted.
+     * An alert the submitter rejects is not recorded, so a retry of it is not
+     * suppressed.
+     *
+     * @param alert The alert
+     * @param submitter Accepts the alert for sending, returning false if it could not
+     * @return whether the alert was accepted, suppressed as a duplicate or rejected
+     */
+    public Outcome submit(Alert alert, Predicate<Alert> submitter) {
+        if (windowMs <= 0) {
+            return submitter.test(alert) ? Outcome.ACCEPTED : Outcome.REJECTED;
+        }
+        Key key = keyOf(alert);
+        String message = alert.getMessage();
+        synchronized (this) {
+            long now = clock.getAsLong();
+            expire(now);
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.lastSeenMs = now;
+                if (now - entry.sentAtMs < windowMs) {
+                    entry.suppressed++;
+                    suppressedCounter.increment();
+                    log.debug("Suppressing duplicate alert: {} from {}", alert.getTitle(), alert.getSource());
+                    return Outcome.SUPPRESSED;
+                }
+                int suppressed = entry.suppressed;
+                if (suppressed > 0) {
+                    alert.setMessage(message + " (" + suppressed + " similar "
+                                     + (suppressed == 1 ? "alert" : "alerts") + " suppressed since the last one)");
+                }
+            }
+
+            if (!submitter.test(alert)) {
+                alert.setMessage(message);
+                return Outcome.REJECTED;
+            }
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+            }
+            entry.sentAtMs = now;
+            entry.lastSeenMs = now;
+            entry.suppressed = 0;
+            evictOverflow();
+            return Outcome.ACCEPTED;
+        }
+    }
+
+    /**
+     * @return the number of distinct alerts being tracked
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static Key keyOf(Alert alert) {
+        // No destinations means the default ones, in any order
+        Set<AlertDestination> destinations = alert.getDestinations() == null
+            ? Set.of()
+            : new HashSet<>(alert.getDestinations());
+        return new Key(alert.getSource(), alert.getTitle(), alert.getLevel(), alert.getMessage(), destinations);
+    }
+
+    // Forget alerts not seen for a whole window; the least recently seen come first
+    private void expire(long now) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> next = iterator.next();
+            if (now - next.getValue().lastSeenMs < windowMs) {
+                return;
+            }
+            logForgotten(next);
+            iterator.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxKeys && iterator.hasNext()) {
+            logForgotten(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static void logForgotten(Map.Entry<Key, Entry> entry) {
+        if (entry.getValue().suppressed > 0) {
+            log.info("Suppressed {} duplicates of alert {} from {} that were not followed by another",
+                     entry.getValue().suppressed, entry.getKey().title(), entry.getKey().source());
+        }
+    }
+}
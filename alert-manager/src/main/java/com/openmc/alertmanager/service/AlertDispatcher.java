@@ -0,0 +1,424 @@
+package com.openmc.alertmanager.service;
+
+import com.openmc.alertmanager.exception.AlertException;
+import com.openmc.alertmanager.exception.AlertRetryLaterException;
+import com.openmc.alertmanager.model.Alert;
+import com.openmc.alertmanager.model.AlertDestination;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Accepts alerts into bounded in-memory queues and sends them on background
+ * threads, so callers get a response without waiting on Discord or RCON.
+ * <p>
+ * Each destination is a bulkhead with its own queue, worker and send timeout, so a
+ * slow or failing destination never delays another: an in-game countdown message
+ * goes out while a Discord webhook call is still waiting. Within a destination,
+ * alerts are sent one at a time in the order they were accepted, which keeps
+ * messages such as shutdown countdowns in order. When a destination's queue is full
+ * the alert is rejected for that destination rather than blocking the caller.
+ * <p>
+ * A destination can batch: after taking an alert its worker lingers briefly for
+ * more to arrive and sends them together, which for Discord packs a burst of alerts
+ * into multi-embed webhook messages instead of one call each.
+ * <p>
+ * Sends give up on a rate limit that would outlast the send timeout rather than
+ * being cut off by it. The worker then holds the batch and sends it again once the
+ * limit has reset, ahead of the alerts queued behind it.
+ * <p>
+ * With a journal path configured, accepted alerts are also written to an
+ * {@link AlertJournal} and acknowledged per destination once delivered. Alerts that
+ * were accepted but not delivered when the alert manager stopped are sent again when
+ * it starts.
+ */
+@Service
+@Slf4j
+public class AlertDispatcher {
+
+    private final AlertService alertService;
+    private final AlertJournal journal;
+    private final long shutdownDrainMs;
+    private final Map<AlertDestination, DestinationQueue> destinations = new EnumMap<>(AlertDestination.class);
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private volatile boolean running = true;
+
+    /**
+     * Queue capacity, send timeout and batching for one destination. A batch size of
+     * one sends every alert on its own without lingering.
+     */
+    record DestinationSettings(int queueCapacity, long timeoutMs, int batchSize, long lingerMs) {
+    }
+
+    // Journal id, or -1 if the alert is not journaled
+    private record QueuedAlert(long id, Alert alert) {
+    }
+
+    @Autowired
+    public AlertDispatcher(AlertService alertService, MeterRegistry meterRegistry,
+                           @Value("${alert.queue.shutdown-drain-seconds:10}") int shutdownDrainSeconds,
+                           @Value("${alert.destination.discord.queue-capacity:1000}") int discordQueueCapacity,
+                           @Value("${alert.destination.discord.timeout-ms:15000}") long discordTimeoutMs,
+                           @Value("${alert.destination.discord.batch-size:10}") int discordBatchSize,
+                           @Value("${alert.destination.discord.linger-ms:250}") long discordLingerMs,
+                           @Value("${alert.destination.minecraft.queue-capacity:100}") int minecraftQueueCapacity,
+                           @Value("${alert.destination.minecraft.timeout-ms:5000}") long minecraftTimeoutMs,
+                           @Value("${alert.journal.path:}") String journalPath,
+                           @Value("${alert.journal.fsync-interval-ms:50}") long fsyncIntervalMs,
+                           @Value("${alert.journal.max-replay-age-minutes:60}") long maxReplayAgeMinutes) {
+        this(alertService, meterRegistry, shutdownDrainSeconds,
+             Map.of(AlertDestination.DISCORD,
+                    new DestinationSettings(discordQueueCapacity, discordTimeoutMs,
+                                            Math.min(discordBatchSize, DiscordAlertService.MAX_EMBEDS_PER_MESSAGE),
+                                            discordLingerMs),
+                    AlertDestination.MINECRAFT,
+                    // Messages already waiting go out together, without lingering for more
+                    new DestinationSettings(minecraftQueueCapacity, minecraftTimeoutMs, 10, 0)),
+             openJournal(journalPath, fsyncIntervalMs, TimeUnit.MINUTES.toMillis(maxReplayAgeMinutes)));
+    }
+
+    AlertDispatcher(AlertService alertService, MeterRegistry meterRegistry, int shutdownDrainSeconds,
+                    Map<AlertDestination, DestinationSettings> settings, AlertJournal journal) {
+        this.alertService = alertService;
+        this.journal = journal;
+        this.shutdownDrainMs = TimeUnit.SECONDS.toMillis(shutdownDrainSeconds);
+
+        this.acceptedCounter = Counter.builder("alerts.accepted")
+            .description("Alerts accepted for at least one destination")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("alerts.rejected")
+            .description("Alerts rejected because every destination queue was full")
+            .register(meterRegistry);
+        for (AlertDestination destination : AlertDestination.values()) {
+            DestinationSettings destinationSettings = settings.get(destination);
+            if (destinationSettings == null) {
+                throw new IllegalArgumentException("No dispatch settings for destination " + destination);
+            }
+            destinations.put(destination, new DestinationQueue(destination, destinationSettings, meterRegistry));
+        }
+
+        if (journal != null) {
+            replay();
+        }
+        destinations.values().forEach(DestinationQueue::start);
+    }
+
+    /**
+     * Queue an alert to be sent to each of its destinations
+     *
+     * @param alert The alert to send
+     * @return false if no destination accepted the alert because their queues are full or
+     *         the dispatcher is shutting down
+     */
+    public boolean submit(Alert alert) {
+        if (running) {
+            List<AlertDestination> targets = alertService.resolveDestinations(alert);
+            // Journal before queueing, so a worker cannot acknowledge an alert not yet written
+            QueuedAlert queued = new QueuedAlert(journalAppend(alert, targets), alert);
+            boolean accepted = false;
+            for (AlertDestination destination : targets) {
+                if (destinations.get(destination).offer(queued)) {
+                    accepted = true;
+                } else {
+                    // Rejected here, so it must not be resent after a restart either
+                    journalAcknowledge(queued.id(), destination);
+                }
+            }
+            if (accepted || targets.isEmpty()) {
+                acceptedCounter.increment();
+                return true;
+            }
+        }
+        rejectedCounter.increment();
+        log.warn("No destination could accept alert, rejecting it: {}", alert.getTitle());
+        return false;
+    }
+
+    /**
+     * @return the number of alerts waiting to be sent to the destination
+     */
+    public int getQueueDepth(AlertDestination destination) {
+        return destinations.get(destination).queue.size();
+    }
+
+    /**
+     * Stop accepting alerts and give the queued ones a bounded time to be sent
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownDrainMs);
+        for (DestinationQueue destination : destinations.values()) {
+            destination.stop(deadline);
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // Queue the alerts accepted before the last stop and not yet delivered
+    private void replay() {
+        int replayed = 0;
+        for (AlertJournal.Entry entry : journal.pendingEntries()) {
+            QueuedAlert queued = new QueuedAlert(entry.id(), entry.alert());
+            for (AlertDestination destination : entry.destinations()) {
+                if (!destinations.get(destination).offer(queued)) {
+                    log.warn("{} queue is full, journaled alert {} will be sent after the next restart",
+                             destination, entry.id());
+                }
+            }
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("Resending {} alerts accepted before the last stop", replayed);
+        }
+    }
+
+    private long journalAppend(Alert alert, List<AlertDestination> targets) {
+        if (journal == null) {
+            return -1;
+        }
+        try {
+            return journal.append(alert, targets);
+        } catch (IOException e) {
+            log.error("Failed to journal alert, it will not survive a restart: {}", alert.getTitle(), e);
+            return -1;
+        }
+    }
+
+    private void journalAcknowledge(long id, AlertDestination destination) {
+        if (id < 0) {
+            return;
+        }
+        try {
+            journal.acknowledge(id, destination);
+        } catch (IOException e) {
+            log.error("Failed to acknowledge journaled alert {} for {}", id, destination, e);
+        }
+    }
+
+    private static AlertJournal openJournal(String path, long fsyncIntervalMs, long maxReplayAgeMs) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            return new AlertJournal(Path.of(path), fsyncIntervalMs, maxReplayAgeMs);
+        } catch (IOException e) {
+            log.warn("Alerts will not survive a restart, unable to open journal at {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The queue and worker for one destination. Each send runs on its own virtual
+     * thread so the worker can stop waiting for it at the timeout; a send that times
+     * out is interrupted and the worker moves on to the next batch.
+     */
+    private final class DestinationQueue {
+
+        private final AlertDestination destination;
+        private final long timeoutMs;
+        private final int batchSize;
+        private final long lingerNanos;
+        private final BlockingQueue<QueuedAlert> queue;
+        private final ExecutorService sends = Executors.newVirtualThreadPerTaskExecutor();
+        private final Thread worker;
+        private final Counter rejectedCounter;
+        private final Counter timeoutCounter;
+        private final Timer dispatchTimer;
+        private final DistributionSummary batchSizeSummary;
+
+        DestinationQueue(AlertDestination destination, DestinationSettings settings, MeterRegistry meterRegistry) {
+            this.destination = destination;
+            this.timeoutMs = settings.timeoutMs();
+            this.batchSize = Math.max(1, settings.batchSize());
+            this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(settings.lingerMs());
+            this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+            String tag = destination.name().toLowerCase();
+
+            Gauge.builder("alerts.queue.depth", queue, BlockingQueue::size)
+                .description("Alerts waiting to be sent to a destination")
+                .tag("destination", tag)
+                .register(meterRegistry);
+            Gauge.builder("alerts.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots in a destination's queue")
+                .tag("destination", tag)
+                .register(meterRegistry);
+            this.rejectedCounter = Counter.builder("alerts.destination.rejected")
+                .description("Alerts not queued for a destination because its queue was full")
+                .tag("destination", tag)
+                .register(meterRegistry);
+            this.timeoutCounter = Counter.builder("alerts.destination.timeouts")
+                .description("Sends to a destination abandoned after the timeout")
+                .tag("destination", tag)
+                .register(meterRegistry);
+            this.dispatchTimer = Timer.builder("alerts.dispatch")
+                .description("Time taken to send a batch of alerts to a destination")
+                .tag("destination", tag)
+                .register(meterRegistry);
+            this.batchSizeSummary = DistributionSummary.builder("alerts.dispatch.batch.size")
+                .description("Alerts sent to a destination together")
+                .tag("destination", tag)
+                .register(meterRegistry);
+
+            this.worker = new Thread(this::run, "alert-dispatcher-" + tag);
+            this.worker.setDaemon(true);
+        }
+
+        void start() {
+            worker.start();
+        }
+
+        boolean offer(QueuedAlert queued) {
+            if (queue.offer(queued)) {
+                return true;
+            }
+            rejectedCounter.increment();
+            log.warn("{} alert queue is full ({} waiting), dropping alert for it: {}",
+                     destination, queue.size(), queued.alert().getTitle());
+            return false;
+        }
+
+        void stop(long deadlineNanos) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                log.warn("{} alert queue did not drain within {} ms, {} alerts left {}", destination,
+                         shutdownDrainMs, queue.size(), journal != null ? "in the journal" : "unsent");
+                worker.interrupt();
+            }
+            sends.shutdownNow();
+        }
+
+        private void run() {
+            List<QueuedAlert> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    QueuedAlert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    fillBatch(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    sendUntilNotRateLimited(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                batch.clear();
+            }
+        }
+
+        // Wait up to the linger time for more alerts to send with the first one; when
+        // stopping, only take what is already queued
+        private void fillBatch(List<QueuedAlert> batch) throws InterruptedException {
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize) {
+                long remaining = deadline - System.nanoTime();
+                QueuedAlert next = running && remaining > 0
+                    ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                    : queue.poll();
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+
+        // Hold on to the alerts a rate limited destination has not delivered until the
+        // limit resets, so they are sent ahead of the alerts queued behind it. Alerts
+        // already delivered are acknowledged and not sent again; when stopping the rest
+        // are left unsent
+        private void sendUntilNotRateLimited(List<QueuedAlert> batch) throws InterruptedException {
+            List<QueuedAlert> remaining = batch;
+            while (true) {
+                try {
+                    acknowledge(remaining.subList(0, send(remaining.stream().map(QueuedAlert::alert).toList())));
+                    return;
+                } catch (AlertRetryLaterException e) {
+                    acknowledge(remaining.subList(0, e.getSentCount()));
+                    remaining = remaining.subList(e.getSentCount(), remaining.size());
+                    if (!running) {
+                        log.warn("{} is rate limited while stopping, {} alerts left {}", destination,
+                                 remaining.size(), journal != null ? "in the journal" : "unsent");
+                        return;
+                    }
+                    log.warn("{} is rate limited, sending {} alerts again in {} ms", destination, remaining.size(),
+                             e.getRetryAfterMs());
+                    Thread.sleep(e.getRetryAfterMs());
+                }
+            }
+        }
+
+        private void acknowledge(List<QueuedAlert> delivered) {
+            delivered.forEach(queued -> journalAcknowledge(queued.id(), destination));
+        }
+
+        /**
+         * @return how many alerts at the start of the list were delivered
+         */
+        private int send(List<Alert> alerts) throws AlertRetryLaterException {
+            long start = System.nanoTime();
+            long deadlineNanos = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            batchSizeSummary.record(alerts.size());
+            Future<?> send = sends.submit(() -> {
+                alertService.sendTo(destination, alerts, deadlineNanos);
+                return null;
+            });
+            try {
+                send.get(timeoutMs, TimeUnit.MILLISECONDS);
+                return alerts.size();
+            } catch (TimeoutException e) {
+                send.cancel(true);
+                timeoutCounter.increment();
+                log.error("Timed out after {} ms sending {} alerts to {}, first: {}", timeoutMs, alerts.size(),
+                          destination, alerts.get(0).getTitle());
+                return 0;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof AlertRetryLaterException retryLater) {
+                    throw retryLater;
+                }
+                log.error("Failed to send {} alerts to {}, first: {}", alerts.size(), destination,
+                          alerts.get(0).getTitle(), e.getCause());
+                return e.getCause() instanceof AlertException failure ? failure.getSentCount() : 0;
+            } catch (InterruptedException e) {
+                send.cancel(true);
+                Thread.currentThread().interrupt();
+                return 0;
+            } finally {
+                dispatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.openmc.alertmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.alertmanager.model.Alert;
+import com.openmc.alertmanager.model.AlertDestination;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk journal of accepted alerts, so alerts that were accepted but
+ * not yet sent survive a restart. Each accepted alert is written as a record, and
+ * each destination it is delivered to as an acknowledgement record. When the journal
+ * is opened it is read back and alerts with unacknowledged destinations are returned
+ * to be sent again, which gives at-least-once delivery.
+ * <p>
+ * Records are written as soon as they are added, so they survive the process being
+ * killed, and flushed to disk in batches every fsync interval, so a host crash loses
+ * at most that interval. Each record carries a checksum; one that does not match
+ * marks the end of the data, which is how a torn write at the tail is recovered. A
+ * record with a good checksum that cannot be read, such as one naming a destination
+ * this version does not know, is skipped with a warning and reading carries on.
+ * Once every alert has been delivered the file is truncated, and when it grows past
+ * a size limit it is rewritten with only the undelivered alerts, and the directory
+ * is flushed so the rename survives a host crash. Alerts older than
+ * the max age are dropped rather than sent late.
+ */
+@Slf4j
+public class AlertJournal implements AutoCloseable {
+
+    static final String FILE_NAME = "alerts.journal";
+    static final long COMPACT_THRESHOLD_BYTES = 1024 * 1024;
+
+    // Record layout: payload length, payload checksum, payload
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+    private static final byte TYPE_ALERT = 1;
+    private static final byte TYPE_ACK = 2;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final long maxAgeMs;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService flusher;
+    // Undelivered alerts in the order they were accepted
+    private final Map<Long, Pending> pending = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long nextId = 1;
+    private boolean dirty;
+
+    /**
+     * An accepted alert and the destinations it has not been delivered to yet
+     */
+    public record Entry(long id, Alert alert, List<AlertDestination> destinations) {
+    }
+
+    private record Pending(long acceptedAtMs, Alert alert, EnumSet<AlertDestination> remaining) {
+    }
+
+    /**
+     * Open the journal in the given directory, creating it if needed, and read back
+     * the undelivered alerts
+     */
+    public AlertJournal(Path directory, long fsyncIntervalMs, long maxAgeMs) throws IOException {
+        this(directory, fsyncIntervalMs, maxAgeMs, System::currentTimeMillis);
+    }
+
+    AlertJournal(Path directory, long fsyncIntervalMs, long maxAgeMs, LongSupplier clock) throws IOException {
+        this.file = directory.resolve(FILE_NAME);
+        this.maxAgeMs = maxAgeMs;
+        this.clock = clock;
+        Files.createDirectories(directory);
+
+        long validLength = Files.exists(file) ? load() : 0;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // Drop a torn record at the tail so appends start after the last good one
+        channel.truncate(validLength);
+        channel.position(validLength);
+        int replayed = pending.size();
+        dropExpired();
+        if (pending.size() < replayed) {
+            log.warn("Dropped {} undelivered alerts older than {} ms", replayed - pending.size(), maxAgeMs);
+        }
+        if (pending.isEmpty()) {
+            channel.truncate(0);
+        } else {
+            log.info("Alert journal at {} has {} undelivered alerts", file, pending.size());
+            rewrite();
+        }
+        channel.force(true);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the undelivered alerts, oldest first
+     */
+    public synchronized List<Entry> pendingEntries() {
+        List<Entry> entries = new ArrayList<>(pending.size());
+        pending.forEach((id, entry) -> entries.add(new Entry(id, entry.alert(), List.copyOf(entry.remaining()))));
+        return entries;
+    }
+
+    /**
+     * Record an accepted alert
+     *
+     * @return the id to acknowledge its destinations with
+     */
+    public synchronized long append(Alert alert, List<AlertDestination> destinations) throws IOException {
+        long id = nextId++;
+        long acceptedAtMs = clock.getAsLong();
+        byte[] json = OBJECT_MAPPER.writeValueAsBytes(alert);
+        EnumSet<AlertDestination> remaining = destinations.isEmpty()
+            ? EnumSet.noneOf(AlertDestination.class) : EnumSet.copyOf(destinations);
+        writeAlertRecord(id, acceptedAtMs, remaining, json);
+        if (!remaining.isEmpty()) {
+            pending.put(id, new Pending(acceptedAtMs, alert, remaining));
+        }
+        return id;
+    }
+
+    /**
+     * Record that an alert needs no more sending to a destination, because it was
+     * delivered there or rejected for it
+     */
+    public synchronized void acknowledge(long id, AlertDestination destination) throws IOException {
+        Pending entry = pending.get(id);
+        if (entry == null || !entry.remaining().remove(destination)) {
+            return;
+        }
+        if (entry.remaining().isEmpty()) {
+            pending.remove(id);
+        }
+
+        if (pending.isEmpty()) {
+            // Everything has been delivered, so nothing in the file is needed any more
+            channel.truncate(0);
+            dirty = true;
+            return;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(13);
+        payload.put(TYPE_ACK).putLong(id).putInt(destination.ordinal());
+        writeRecord(payload.array());
+        if (channel.size() > COMPACT_THRESHOLD_BYTES) {
+            dropExpired();
+            rewrite();
+        }
+    }
+
+    public synchronized long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        synchronized (this) {
+            try {
+                channel.force(true);
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close alert journal {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    // Force written records to disk; done outside the lock so appends do not wait on it
+    private void flush() {
+        FileChannel current;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            current = channel;
+        }
+        try {
+            current.force(false);
+        } catch (ClosedChannelException e) {
+            // Replaced by a rewrite, which forced the new file itself
+        } catch (IOException e) {
+            log.warn("Failed to flush alert journal {}: {}", file, e.getMessage());
+            synchronized (this) {
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Read every valid record, rebuilding the undelivered alerts
+     *
+     * @return the length of the valid data
+     */
+    private long load() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        int skipped = 0;
+        while (data.remaining() >= HEADER_SIZE) {
+            int start = data.position();
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD_SIZE || length > data.remaining()) {
+                data.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            data.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                data.position(start);
+                break;
+            }
+            if (!apply(ByteBuffer.wrap(payload))) {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            log.warn("Skipped {} records in {} that could not be read", skipped, file);
+        }
+        if (data.hasRemaining()) {
+            log.warn("Ignoring {} bytes of incomplete data at the end of {}", data.remaining(), file);
+        }
+        return data.position();
+    }
+
+    /**
+     * @return false if the record could not be read
+     */
+    private boolean apply(ByteBuffer payload) {
+        try {
+            byte type = payload.get();
+            long id = payload.getLong();
+            nextId = Math.max(nextId, id + 1);
+            if (type == TYPE_ALERT) {
+                long acceptedAtMs = payload.getLong();
+                EnumSet<AlertDestination> remaining = fromMask(payload.getInt());
+                Alert alert = OBJECT_MAPPER.readValue(payload.array(), payload.position(), payload.remaining(),
+                                                      Alert.class);
+                if (!remaining.isEmpty()) {
+                    pending.put(id, new Pending(acceptedAtMs, alert, remaining));
+                }
+                return true;
+            }
+            if (type == TYPE_ACK) {
+                AlertDestination destination = AlertDestination.values()[payload.getInt()];
+                Pending entry = pending.get(id);
+                if (entry != null) {
+                    entry.remaining().remove(destination);
+                    if (entry.remaining().isEmpty()) {
+                        pending.remove(id);
+                    }
+                }
+                return true;
+            }
+            return false;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void dropExpired() {
+        long cutoff = clock.getAsLong() - maxAgeMs;
+        pending.values().removeIf(entry -> entry.acceptedAtMs() < cutoff);
+    }
+
+    // Replace the file with one holding only the undelivered alerts
+    private void rewrite() throws IOException {
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        FileChannel previous = channel;
+        channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        for (var entry : pending.entrySet()) {
+            Pending value = entry.getValue();
+            writeAlertRecord(entry.getKey(), value.acceptedAtMs(), value.remaining(),
+                             OBJECT_MAPPER.writeValueAsBytes(value.alert()));
+        }
+        channel.force(true);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        previous.close();
+        forceDirectory();
+    }
+
+    // Flush the directory entry, so after a host crash the file is the rewritten one
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open a directory; the rename is still atomic there
+            log.debug("Could not flush journal directory {}: {}", file.getParent(), e.getMessage());
+        }
+    }
+
+    private void writeAlertRecord(long id, long acceptedAtMs, EnumSet<AlertDestination> destinations,
+                                  byte[] json) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(21 + json.length);
+        payload.put(TYPE_ALERT).putLong(id).putLong(acceptedAtMs).putInt(toMask(destinations)).put(json);
+        writeRecord(payload.array());
+    }
+
+    private void writeRecord(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        dirty = true;
+    }
+
+    private static int toMask(EnumSet<AlertDestination> destinations) {
+        int mask = 0;
+        for (AlertDestination destination : destinations) {
+            mask |= 1 << destination.ordinal();
+        }
+        return mask;
+    }
+
+    private static EnumSet<AlertDestination> fromMask(int mask) {
+        EnumSet<AlertDestination> destinations = EnumSet.noneOf(AlertDestination.class);
+        for (AlertDestination destination : AlertDestination.values()) {
+            if ((mask & (1 << destination.ordinal())) != 0) {
+                destinations.add(destination);
+            }
+        }
+        return destinations;
+    }
+}
@@ -1,5 +1,6 @@
 package com.openmc.alertmanager.service;
 
+import com.openmc.alertmanager.exception.AlertException;
 import com.openmc.alertmanager.model.Alert;
 import com.openmc.alertmanager.model.AlertDestination;
 import lombok.extern.slf4j.Slf4j;
@@ -32,31 +33,81 @@ public class AlertService {
     public void sendAlert(Alert alert) {
         log.info("Processing alert: {} from source: {}", alert.getTitle(), alert.getSource());
         
-        // Determine destinations - if not specified, send to all
-        List<AlertDestination> destinations = alert.getDestinations();
-        if (destinations == null || destinations.isEmpty()) {
-            destinations = Arrays.asList(AlertDestination.values());
-            log.debug("No destinations specified, sending to all: {}", destinations);
-        }
-        
         // Send to each requested destination
-        for (AlertDestination destination : destinations) {
+        for (AlertDestination destination : resolveDestinations(alert)) {
             try {
-                switch (destination) {
-                    case DISCORD:
-                        discordAlertService.sendAlert(alert);
-                        break;
-                    case MINECRAFT:
-                        // For Minecraft, use the message field as the text to send
-                        minecraftMessageService.sendMessage(alert.getMessage());
-                        break;
-                    default:
-                        log.warn("Unknown destination: {}", destination);
-                }
+                sendTo(destination, alert);
             } catch (Exception e) {
                 log.error("Failed to send alert to destination: {}", destination, e);
                 // Continue to other destinations even if one fails
             }
         }
     }
+
+    /**
+     * The destinations an alert is for: those it names, or all of them if it names none
+     *
+     * @param alert The alert
+     * @return The destinations to send it to
+     */
+    public List<AlertDestination> resolveDestinations(Alert alert) {
+        List<AlertDestination> destinations = alert.getDestinations();
+        if (destinations == null || destinations.isEmpty()) {
+            destinations = Arrays.asList(AlertDestination.values());
+            log.debug("No destinations specified, sending to all: {}", destinations);
+        }
+        return destinations;
+    }
+
+    /**
+     * Send an alert to a single destination
+     *
+     * @param destination The destination to send to
+     * @param alert The alert to send
+     * @throws AlertException if the alert could not be delivered
+     */
+    public void sendTo(AlertDestination destination, Alert alert) throws AlertException {
+        switch (destination) {
+            case DISCORD:
+                discordAlertService.sendAlert(alert);
+                break;
+            case MINECRAFT:
+                // For Minecraft, use the message field as the text to send
+                if (!minecraftMessageService.sendMessage(alert.getMessage())) {
+                    throw new AlertException("Failed to send message to Minecraft server");
+                }
+                break;
+            default:
+                log.warn("Unknown destination: {}", destination);
+        }
+    }
+
+    /**
+     * Send several alerts to a single destination. Discord alerts are combined into as
+     * few webhook messages as possible, and Minecraft messages are sent in order over
+     * one RCON session.
+     *
+     * @param destination The destination to send to
+     * @param alerts The alerts to send, in order
+     * @param deadlineNanos The {@link System#nanoTime()} by which Discord sends give up
+     *                      waiting out the rate limit
+     * @throws AlertException if any of the alerts could not be delivered
+     */
+    public void sendTo(AlertDestination destination, List<Alert> alerts, long deadlineNanos)
+            throws AlertException {
+        switch (destination) {
+            case DISCORD:
+                discordAlertService.sendAlerts(alerts, deadlineNanos);
+                break;
+            case MINECRAFT:
+                if (!minecraftMessageService.sendMessages(alerts.stream().map(Alert::getMessage).toList())) {
+                    throw new AlertException("Failed to send messages to Minecraft server");
+                }
+                break;
+            default:
+                for (Alert alert : alerts) {
+                    sendTo(destination, alert);
+                }
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.openmc.alertmanager.service;
 
 import com.openmc.alertmanager.exception.AlertException;
+import com.openmc.alertmanager.exception.AlertRetryLaterException;
 import com.openmc.alertmanager.model.Alert;
 import com.openmc.alertmanager.model.AlertLevel;
 import com.openmc.alertmanager.model.discord.DiscordEmbed;
@@ -8,13 +9,13 @@ import com.openmc.alertmanager.model.discord.DiscordEmbedFooter;
 import com.openmc.alertmanager.model.discord.DiscordWebhookPayload;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for sending alerts to Discord via webhooks
@@ -29,16 +30,26 @@ public class DiscordAlertService {
     private static final int DISCORD_COLOR_RED = 15158332;     // Red for ERROR
     private static final int DISCORD_COLOR_DARK_RED = 10038562; // Dark Red for CRITICAL
 
+    // Discord message limits; text past the per-field limits is cut short
+    static final int MAX_EMBEDS_PER_MESSAGE = 10;
+    static final int MAX_EMBED_CHARACTERS_PER_MESSAGE = 6000;
+    private static final int MAX_TITLE_LENGTH = 256;
+    private static final int MAX_DESCRIPTION_LENGTH = 4096;
+    private static final int MAX_FOOTER_LENGTH = 2048;
+
     @Value("${discord.webhook.url:}")
     private String webhookUrl;
 
     @Value("${discord.enabled:false}")
     private boolean enabled;
 
-    private final RestTemplate restTemplate;
+    @Value("${alert.destination.discord.timeout-ms:15000}")
+    private long sendTimeoutMs;
+
+    private final DiscordWebhookSender webhookSender;
 
-    public DiscordAlertService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public DiscordAlertService(DiscordWebhookSender webhookSender) {
+        this.webhookSender = webhookSender;
     }
 
     /**
@@ -48,51 +59,116 @@ public class DiscordAlertService {
      * @throws AlertException if sending fails
      */
     public void sendAlert(Alert alert) throws AlertException {
+        sendAlerts(List.of(alert), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs));
+    }
+
+    /**
+     * Send several alerts to Discord, packing them into as few webhook messages as
+     * Discord's embed and character limits allow. If a message fails, the exception's
+     * {@link AlertException#getSentCount() sent count} tells how many alerts the
+     * messages before it delivered, so only the rest are sent again.
+     *
+     * @param alerts The alerts to send, in order
+     * @param deadlineNanos The {@link System#nanoTime()} by which to have given up
+     * @throws AlertRetryLaterException if Discord's rate limit does not reset before the deadline
+     * @throws AlertException if sending any message fails
+     */
+    public void sendAlerts(List<Alert> alerts, long deadlineNanos) throws AlertException {
         if (!enabled) {
-            log.debug("Discord alerts are disabled, skipping alert: {}", alert.getTitle());
+            log.debug("Discord alerts are disabled, skipping {} alerts", alerts.size());
             return;
         }
 
         if (webhookUrl == null || webhookUrl.isEmpty()) {
-            log.warn("Discord webhook URL is not configured, cannot send alert: {}", alert.getTitle());
+            log.warn("Discord webhook URL is not configured, cannot send {} alerts", alerts.size());
             return;
         }
 
-        log.info("Sending Discord alert: {} (level: {}, source: {})", 
-                 alert.getTitle(), alert.getLevel(), alert.getSource());
+        for (Alert alert : alerts) {
+            log.info("Sending Discord alert: {} (level: {}, source: {})",
+                     alert.getTitle(), alert.getLevel(), alert.getSource());
+        }
 
+        int sent = 0;
         try {
-            DiscordWebhookPayload payload = buildDiscordPayload(alert);
-            sendWebhook(payload);
-            log.info("Discord alert sent successfully: {}", alert.getTitle());
+            List<DiscordWebhookPayload> payloads = buildDiscordPayloads(alerts);
+            for (DiscordWebhookPayload payload : payloads) {
+                webhookSender.send(webhookUrl, payload, deadlineNanos);
+                // One embed per alert
+                sent += payload.getEmbeds().size();
+            }
+            log.info("Discord alerts sent successfully: {} alerts in {} messages", alerts.size(), payloads.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AlertException("Interrupted while sending Discord alert", e, sent);
+        } catch (AlertRetryLaterException e) {
+            log.warn("Discord is rate limited, {} of {} alerts can be sent again in {} ms", alerts.size() - sent,
+                     alerts.size(), e.getRetryAfterMs());
+            throw new AlertRetryLaterException(e.getMessage(), e.getRetryAfterMs(), sent);
         } catch (Exception e) {
-            log.error("Failed to send Discord alert: {}", alert.getTitle(), e);
-            throw new AlertException("Failed to send Discord alert", e);
+            log.error("Failed to send {} of {} Discord alerts", alerts.size() - sent, alerts.size(), e);
+            throw new AlertException("Failed to send Discord alert", e, sent);
         }
     }
 
     /**
-     * Build the Discord webhook payload using DTOs
+     * Build the Discord webhook payloads using DTOs, one embed per alert and up to
+     * ten embeds per payload
      *
-     * @param alert The alert to convert to Discord format
-     * @return Discord webhook payload DTO
+     * @param alerts The alerts to convert to Discord format
+     * @return Discord webhook payload DTOs, in order
      */
-    private DiscordWebhookPayload buildDiscordPayload(Alert alert) {
+    List<DiscordWebhookPayload> buildDiscordPayloads(List<Alert> alerts) {
+        List<DiscordWebhookPayload> payloads = new ArrayList<>();
+        List<DiscordEmbed> embeds = new ArrayList<>();
+        int characters = 0;
+        for (Alert alert : alerts) {
+            DiscordEmbed embed = buildEmbed(alert);
+            int embedCharacters = countCharacters(embed);
+            if (!embeds.isEmpty() && (embeds.size() == MAX_EMBEDS_PER_MESSAGE
+                    || characters + embedCharacters > MAX_EMBED_CHARACTERS_PER_MESSAGE)) {
+                payloads.add(DiscordWebhookPayload.builder().embeds(embeds).build());
+                embeds = new ArrayList<>();
+                characters = 0;
+            }
+            embeds.add(embed);
+            characters += embedCharacters;
+        }
+        if (!embeds.isEmpty()) {
+            payloads.add(DiscordWebhookPayload.builder().embeds(embeds).build());
+        }
+        return payloads;
+    }
+
+    private DiscordEmbed buildEmbed(Alert alert) {
         DiscordEmbedFooter footer = DiscordEmbedFooter.builder()
-            .text("Source: " + (alert.getSource() != null ? alert.getSource() : "unknown"))
+            .text(truncate("Source: " + (alert.getSource() != null ? alert.getSource() : "unknown"),
+                           MAX_FOOTER_LENGTH))
             .build();
 
-        DiscordEmbed embed = DiscordEmbed.builder()
-            .title(alert.getTitle())
-            .description(alert.getMessage())
+        return DiscordEmbed.builder()
+            .title(truncate(alert.getTitle(), MAX_TITLE_LENGTH))
+            .description(truncate(alert.getMessage(), MAX_DESCRIPTION_LENGTH))
             .color(getColorForLevel(alert.getLevel()))
             .timestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
             .footer(footer)
             .build();
+    }
 
-        return DiscordWebhookPayload.builder()
-            .embeds(Collections.singletonList(embed))
-            .build();
+    // Characters that count towards Discord's per-message embed limit
+    private static int countCharacters(DiscordEmbed embed) {
+        return length(embed.getTitle()) + length(embed.getDescription()) + length(embed.getFooter().getText());
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    private static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength - 1) + "\u2026";
     }
 
     /**
@@ -109,26 +185,4 @@ public class DiscordAlertService {
             case CRITICAL -> DISCORD_COLOR_DARK_RED;
         };
     }
-
-    /**
-     * Send webhook request to Discord
-     *
-     * @param payload Discord webhook payload DTO
-     */
-    private void sendWebhook(DiscordWebhookPayload payload) throws AlertException {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<DiscordWebhookPayload> entity = new HttpEntity<>(payload, headers);
-        ResponseEntity<String> response = restTemplate.exchange(
-            webhookUrl,
-            HttpMethod.POST,
-            entity,
-            String.class
-        );
-
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new AlertException("Discord webhook returned non-success status: " + response.getStatusCode());
-        }
-    }
 }
@@ -0,0 +1,209 @@
+package com.openmc.alertmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.alertmanager.exception.AlertException;
+import com.openmc.alertmanager.exception.AlertRetryLaterException;
+import com.openmc.alertmanager.model.discord.DiscordWebhookPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts payloads to Discord webhooks within Discord's rate limits.
+ * <p>
+ * Each webhook has a bucket tracked from the {@code X-RateLimit-Remaining} and
+ * {@code X-RateLimit-Reset-After} response headers. Once a bucket is used up, the
+ * next send waits for it to reset instead of being refused with a 429. If a 429
+ * comes back anyway, for example from the global limit or another client on the
+ * same webhook, the send is retried after the {@code retry_after} Discord gives.
+ * Server errors and connection failures are retried with exponential backoff.
+ * Every retry wait has random jitter added so that senders do not retry in step.
+ * <p>
+ * A send never waits past its deadline. A rate limit that would outlast it fails the
+ * send with an {@link AlertRetryLaterException}, so the caller can send the payload
+ * again after the reset instead of timing out on it. Retries are per payload: a
+ * caller sending several payloads sends again only the one that failed and those
+ * after it.
+ */
+@Component
+@Slf4j
+public class DiscordWebhookSender {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final RestTemplate restTemplate;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public DiscordWebhookSender(RestTemplate restTemplate,
+                                @Value("${discord.webhook.max-retries:3}") int maxRetries,
+                                @Value("${discord.webhook.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.restTemplate = restTemplate;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * Post a payload to a webhook, waiting out its rate limit and retrying failures
+     * that may pass
+     *
+     * @param webhookUrl The webhook to post to
+     * @param payload Discord webhook payload DTO
+     * @param deadlineNanos The {@link System#nanoTime()} by which to have given up
+     * @throws AlertRetryLaterException if the rate limit does not reset before the deadline
+     * @throws AlertException if Discord refuses the payload or it still fails after the retries
+     * @throws InterruptedException if interrupted while waiting to send
+     */
+    public void send(String webhookUrl, DiscordWebhookPayload payload, long deadlineNanos)
+            throws AlertException, InterruptedException {
+        Bucket bucket = buckets.computeIfAbsent(webhookUrl, url -> new Bucket());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<DiscordWebhookPayload> entity = new HttpEntity<>(payload, headers);
+
+        for (int attempt = 0; ; attempt++) {
+            long delayNanos;
+            while ((delayNanos = bucket.reserve()) > 0) {
+                checkRateLimitWait(delayNanos, deadlineNanos);
+                log.debug("Discord rate limit reached, waiting {} ms", TimeUnit.NANOSECONDS.toMillis(delayNanos));
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            }
+
+            long retryAfterMs;
+            boolean rateLimited = false;
+            try {
+                ResponseEntity<String> response = restTemplate.exchange(webhookUrl, HttpMethod.POST, entity,
+                                                                        String.class);
+                bucket.update(response.getHeaders());
+                return;
+            } catch (HttpStatusCodeException e) {
+                bucket.update(e.getResponseHeaders());
+                if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    retryAfterMs = retryAfterMs(e);
+                    rateLimited = true;
+                    bucket.exhaust(retryAfterMs);
+                } else if (e.getStatusCode().is5xxServerError()) {
+                    retryAfterMs = backoffMs(attempt);
+                } else {
+                    throw new AlertException("Discord webhook returned non-success status: " + e.getStatusCode(), e);
+                }
+                if (attempt >= maxRetries) {
+                    throw new AlertException("Discord webhook returned " + e.getStatusCode() + " after "
+                                             + (attempt + 1) + " attempts", e);
+                }
+            } catch (ResourceAccessException e) {
+                if (attempt >= maxRetries) {
+                    throw new AlertException("Discord webhook could not be reached after " + (attempt + 1)
+                                             + " attempts", e);
+                }
+                retryAfterMs = backoffMs(attempt);
+            }
+
+            long waitMs = retryAfterMs + ThreadLocalRandom.current().nextLong(retryBackoffMs + 1);
+            long waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMs);
+            if (rateLimited) {
+                checkRateLimitWait(waitNanos, deadlineNanos);
+            } else if (deadlineNanos - System.nanoTime() < waitNanos) {
+                throw new AlertException("Discord webhook send failed and there is no time left to retry it");
+            }
+            log.warn("Discord webhook send failed, retrying in {} ms (retry {} of {})", waitMs, attempt + 1,
+                     maxRetries);
+            Thread.sleep(waitMs);
+        }
+    }
+
+    private static void checkRateLimitWait(long waitNanos, long deadlineNanos) throws AlertRetryLaterException {
+        if (deadlineNanos - System.nanoTime() < waitNanos) {
+            long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1;
+            throw new AlertRetryLaterException("Discord rate limit does not reset for " + waitMs
+                                               + " ms, after the send deadline", waitMs);
+        }
+    }
+
+    private long backoffMs(int attempt) {
+        return retryBackoffMs << Math.min(attempt, 10);
+    }
+
+    // Discord gives the wait in seconds in the body, falling back to the Retry-After header
+    private long retryAfterMs(HttpStatusCodeException e) {
+        try {
+            double seconds = OBJECT_MAPPER.readTree(e.getResponseBodyAsString()).path("retry_after").asDouble(-1);
+            if (seconds >= 0) {
+                return (long) Math.ceil(seconds * 1000);
+            }
+        } catch (Exception ignored) {
+            // Not JSON, use the header instead
+        }
+        HttpHeaders headers = e.getResponseHeaders();
+        String header = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (header != null) {
+            try {
+                return (long) Math.ceil(Double.parseDouble(header) * 1000);
+            } catch (NumberFormatException ignored) {
+                // Fall through to the backoff
+            }
+        }
+        return retryBackoffMs;
+    }
+
+    /**
+     * The rate limit of one webhook, as last reported by Discord. Sends reserve a
+     * request from it, so a send that would use up the last request waits for the
+     * reset instead.
+     */
+    private static final class Bucket {
+
+        // Requests left until the reset, or -1 when not known
+        private int remaining = -1;
+        private long resetAtNanos;
+
+        /**
+         * @return 0 if a request was reserved, or how long to wait before trying again
+         */
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            if (remaining < 0 || now - resetAtNanos >= 0) {
+                remaining = -1;
+                return 0;
+            }
+            if (remaining == 0) {
+                return resetAtNanos - now;
+            }
+            remaining--;
+            return 0;
+        }
+
+        synchronized void update(HttpHeaders headers) {
+            if (headers == null) {
+                return;
+            }
+            String remainingHeader = headers.getFirst("X-RateLimit-Remaining");
+            String resetAfterHeader = headers.getFirst("X-RateLimit-Reset-After");
+            if (remainingHeader == null || resetAfterHeader == null) {
+                return;
+            }
+            try {
+                remaining = Integer.parseInt(remainingHeader);
+                resetAtNanos = System.nanoTime()
+                    + (long) (Double.parseDouble(resetAfterHeader) * TimeUnit.SECONDS.toNanos(1));
+            } catch (NumberFormatException e) {
+                remaining = -1;
+            }
+        }
+
+        synchronized void exhaust(long retryAfterMs) {
+            remaining = 0;
+            resetAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMs);
+        }
+    }
+}
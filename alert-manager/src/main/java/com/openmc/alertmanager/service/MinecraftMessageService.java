@@ -1,55 +1,273 @@
 package com.openmc.alertmanager.service;
 
-import com.openmc.alertmanager.rcon.RconClient;
+import com.openmc.rcon.RconClient;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
- * Service for sending messages to Minecraft server via RCON
+ * Service for sending messages to Minecraft server via RCON.
+ * <p>
+ * Messages go through one long-lived, authenticated RCON session rather than a new
+ * connection each. A single sender thread owns the session: it opens it when the
+ * first message is sent, reopens it after the server drops it, and pings it when no
+ * messages have been sent for the keepalive interval, so a dead session is noticed
+ * before a message needs it. The server runs one command per session at a time, so
+ * messages are sent one after another in the order they were queued.
  */
 @Service
 @Slf4j
 public class MinecraftMessageService {
 
-    @Value("${minecraft.rcon.host:mcserver}")
-    private String rconHost;
+    private static final int SEND_QUEUE_CAPACITY = 1000;
+    // Harmless command used to check the session is still alive
+    private static final String KEEPALIVE_COMMAND = "list";
+
+    private final String rconHost;
+    private final int rconPort;
+    private final String rconPassword;
+    private final boolean enabled;
+    private final long keepaliveMs;
+    private final long sendTimeoutMs;
+    private final BlockingQueue<QueuedCommand> sendQueue = new LinkedBlockingQueue<>(SEND_QUEUE_CAPACITY);
+    private final Thread sender;
+    private volatile boolean running = true;
+
+    // Only touched on the sender thread
+    private RconClient session;
 
-    @Value("${minecraft.rcon.port:25575}")
-    private int rconPort;
+    private record QueuedCommand(String command, CompletableFuture<Boolean> sent) {
+    }
+
+    @Autowired
+    public MinecraftMessageService(@Value("${minecraft.rcon.host:mcserver}") String rconHost,
+                                   @Value("${minecraft.rcon.port:25575}") int rconPort,
+                                   @Value("${minecraft.rcon.password:}") String rconPassword,
+                                   @Value("${minecraft.rcon.enabled:false}") boolean enabled,
+                                   @Value("${minecraft.rcon.keepalive-seconds:60}") long keepaliveSeconds,
+                                   @Value("${alert.destination.minecraft.timeout-ms:5000}") long sendTimeoutMs) {
+        // Give up no later than the dispatcher does, so a message it abandons is not sent later
+        this(rconHost, rconPort, rconPassword, enabled, Duration.ofSeconds(keepaliveSeconds),
+             Duration.ofMillis(sendTimeoutMs));
+    }
 
-    @Value("${minecraft.rcon.password:}")
-    private String rconPassword;
+    MinecraftMessageService(String rconHost, int rconPort, String rconPassword, boolean enabled,
+                            Duration keepalive, Duration sendTimeout) {
+        this.rconHost = rconHost;
+        this.rconPort = rconPort;
+        this.rconPassword = rconPassword;
+        this.enabled = enabled;
+        this.keepaliveMs = keepalive.toMillis();
+        this.sendTimeoutMs = sendTimeout.toMillis();
 
-    @Value("${minecraft.rcon.enabled:false}")
-    private boolean enabled;
+        if (enabled && rconPassword != null && !rconPassword.isEmpty()) {
+            sender = new Thread(this::run, "minecraft-rcon-sender");
+            sender.setDaemon(true);
+            sender.start();
+        } else {
+            sender = null;
+        }
+    }
 
     /**
      * Send a message to the Minecraft server using the "say" command
      *
      * @param message The message to send to players
+     * @return false if the message could not be sent; true if it was sent or RCON is not set up
+     */
+    public boolean sendMessage(String message) {
+        return sendMessages(List.of(String.valueOf(message)));
+    }
+
+    /**
+     * Send several messages to the Minecraft server, in order
+     *
+     * @param messages The messages to send to players
+     * @return false if any message could not be sent; true if all were sent or RCON is not set up
      */
-    public void sendMessage(String message) {
+    public boolean sendMessages(List<String> messages) {
         if (!enabled) {
-            log.debug("Minecraft RCON is disabled, skipping message: {}", message);
-            return;
+            log.debug("Minecraft RCON is disabled, skipping {} messages", messages.size());
+            return true;
         }
 
         if (rconPassword == null || rconPassword.isEmpty()) {
-            log.warn("Minecraft RCON password is not configured, cannot send message: {}", message);
-            return;
+            log.warn("Minecraft RCON password is not configured, cannot send {} messages", messages.size());
+            return true;
         }
 
-        log.info("Sending message to Minecraft server via RCON: {}", message);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            log.info("Sending message to Minecraft server via RCON: {}", message);
+            CompletableFuture<Boolean> sent = new CompletableFuture<>();
+            if (!running || !sendQueue.offer(new QueuedCommand("say " + message, sent))) {
+                log.error("Minecraft message queue is full or closed, dropping message: {}", message);
+                sent.complete(false);
+            }
+            results.add(sent);
+        }
 
-        try (RconClient client = new RconClient(rconHost, rconPort, rconPassword)) {
-            String command = "say " + message;
-            String response = client.sendCommand(command);
-            log.debug("RCON response: {}", response);
-            log.info("Message sent successfully to Minecraft server");
-        } catch (Exception e) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        boolean allSent = true;
+        try {
+            for (CompletableFuture<Boolean> result : results) {
+                allSent &= result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(results);
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
             log.error("Failed to send message to Minecraft server via RCON", e);
-            // Don't throw exception - just log the error so other destinations can still be sent to
+            cancel(results);
+            return false;
+        }
+        if (allSent) {
+            log.info("{} messages sent successfully to Minecraft server", messages.size());
+        }
+        return allSent;
+    }
+
+    /**
+     * Stop the sender and close the RCON session
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+            try {
+                sender.join(sendTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Withdraw messages still waiting to be sent, so they do not reach players after being reported as failed
+    private static void cancel(List<CompletableFuture<Boolean>> results) {
+        results.forEach(result -> result.cancel(false));
+    }
+
+    private void run() {
+        while (running) {
+            QueuedCommand queued = null;
+            try {
+                queued = keepaliveMs > 0
+                    ? sendQueue.poll(keepaliveMs, TimeUnit.MILLISECONDS)
+                    : sendQueue.take();
+                if (queued == null) {
+                    keepalive();
+                    continue;
+                }
+                send(queued);
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                // Anything not sent by now, because of an interrupt, has failed
+                if (queued != null) {
+                    queued.sent().complete(false);
+                }
+            }
+        }
+        sendQueue.forEach(queued -> queued.sent().complete(false));
+        sendQueue.clear();
+        closeSession();
+    }
+
+    /**
+     * Send the command over the session. If a reused session turns out to have been
+     * dropped, the command is sent once more on a new session. Timeouts are not
+     * retried since the server may already have run the command.
+     */
+    private void send(QueuedCommand queued) throws InterruptedException {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            // Skip messages whose sender has already given up on them
+            if (queued.sent().isDone()) {
+                return;
+            }
+            boolean reused = session != null;
+            RconClient client;
+            try {
+                client = openSession();
+            } catch (InterruptedIOException e) {
+                throw new InterruptedException(e.getMessage());
+            } catch (IOException e) {
+                log.error("Failed to connect to Minecraft server via RCON: {}", e.getMessage());
+                queued.sent().complete(false);
+                return;
+            }
+
+            try {
+                log.debug("RCON response: {}", client.sendCommand(queued.command()));
+                queued.sent().complete(true);
+                return;
+            } catch (InterruptedIOException e) {
+                throw new InterruptedException(e.getMessage());
+            } catch (IOException e) {
+                boolean dropped = !client.isAlive();
+                if (dropped) {
+                    closeSession();
+                }
+                if (reused && attempt == 0 && dropped && !(e instanceof SocketTimeoutException)) {
+                    log.debug("RCON session was lost, reconnecting to resend message");
+                } else {
+                    log.error("Failed to send message to Minecraft server via RCON: {}", queued.command(), e);
+                    queued.sent().complete(false);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Check an idle session still works, so a dropped one is replaced before it is needed
+    private void keepalive() {
+        if (session == null) {
+            return;
+        }
+        try {
+            session.sendCommand(KEEPALIVE_COMMAND);
+        } catch (IOException e) {
+            log.debug("RCON session lost, reconnecting with the next message: {}", e.getMessage());
+            closeSession();
+        }
+    }
+
+    private RconClient openSession() throws IOException {
+        if (session != null && !session.isAlive()) {
+            closeSession();
+        }
+        if (session == null) {
+            session = new RconClient(rconHost, rconPort, rconPassword);
+            log.info("Opened RCON session to {}:{}", rconHost, rconPort);
+        }
+        return session;
+    }
+
+    private void closeSession() {
+        if (session == null) {
+            return;
+        }
+        try {
+            session.close();
+        } catch (IOException e) {
+            log.debug("Error closing RCON session: {}", e.getMessage());
         }
+        session = null;
     }
 }
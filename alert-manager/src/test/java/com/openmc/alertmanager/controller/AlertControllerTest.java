@@ -0,0 +1,88 @@
+package com.openmc.alertmanager.controller;
+
+import com.openmc.alertmanager.model.Alert;
+import com.openmc.alertmanager.model.AlertDestination;
+import com.openmc.alertmanager.model.AlertLevel;
+import com.openmc.alertmanager.service.AlertDeduplicator;
+import com.openmc.alertmanager.service.AlertDispatcher;
+import com.openmc.alertmanager.service.AlertService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AlertController Tests")
+class AlertControllerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AlertService alertService;
+    private AlertDispatcher dispatcher;
+    private AlertController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        alertService = mock(AlertService.class);
+        when(alertService.resolveDestinations(any())).thenReturn(List.of(AlertDestination.DISCORD));
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(alertService).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Room for one queued Discord alert, sent one at a time
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, 1, 10000, 1, 0, 1, 10000, "", 50, 60);
+        controller = new AlertController(dispatcher, new AlertDeduplicator(meterRegistry, 300, 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should not suppress the retry of an alert rejected because the queue was full")
+    void shouldNotSuppressRetryOfRejectedAlert() throws Exception {
+        // One alert being sent and one waiting fill the queue
+        assertEquals(HttpStatus.ACCEPTED, controller.sendAlert(alert("In flight")).getStatusCode());
+        verify(alertService, timeout(1000)).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        assertEquals(HttpStatus.ACCEPTED, controller.sendAlert(alert("Waiting")).getStatusCode());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.sendAlert(alert("Crashed")).getStatusCode());
+        // Still full: the retry is rejected again rather than answered as a duplicate
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.sendAlert(alert("Crashed")).getStatusCode());
+
+        release.countDown();
+        while (dispatcher.getQueueDepth(AlertDestination.DISCORD) > 0) {
+            Thread.sleep(10);
+        }
+        var accepted = controller.sendAlert(alert("Crashed"));
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        assertEquals("Alert accepted", accepted.getBody());
+
+        // Now that it was queued, a repeat is a duplicate
+        assertEquals("Alert suppressed as a duplicate", controller.sendAlert(alert("Crashed")).getBody());
+    }
+
+    private static Alert alert(String title) {
+        return Alert.builder()
+            .title(title)
+            .message("message")
+            .level(AlertLevel.ERROR)
+            .source("test")
+            .build();
+    }
+}
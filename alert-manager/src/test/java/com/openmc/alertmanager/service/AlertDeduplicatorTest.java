@@ -0,0 +1,182 @@
+package com.openmc.alertmanager.service;
+
+import com.openmc.alertmanager.model.Alert;
+import com.openmc.alertmanager.model.AlertDestination;
+import com.openmc.alertmanager.model.AlertLevel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AlertDeduplicator Tests")
+class AlertDeduplicatorTest {
+
+    private static final long WINDOW_MS = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private MeterRegistry meterRegistry;
+    private AlertDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new AlertDeduplicator(meterRegistry, WINDOW_MS, 100, now::get);
+    }
+
+    @Test
+    @DisplayName("Should suppress repeats within the window and report them with the next alert")
+    void shouldSuppressRepeatsAndReportThem() {
+        assertTrue(send(crash()));
+        for (int i = 0; i < 3; i++) {
+            now.addAndGet(10_000);
+            assertFalse(send(crash()));
+        }
+
+        // Still repeating when the window since the last sent alert ends
+        now.addAndGet(40_000);
+        Alert next = crash();
+        assertTrue(send(next));
+
+        assertEquals("Server exited (3 similar alerts suppressed since the last one)", next.getMessage());
+        assertEquals(3.0, meterRegistry.get("alerts.suppressed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should send alerts that differ in source, title, level, message or destinations")
+    void shouldSendDistinctAlerts() {
+        assertTrue(send(crash()));
+        assertTrue(send(alert("wrapper", "Minecraft Server Crashed", AlertLevel.CRITICAL)));
+        assertTrue(send(alert("wrapper", "Backup Failed", AlertLevel.ERROR)));
+        assertTrue(send(alert("backup", "Minecraft Server Crashed", AlertLevel.ERROR)));
+        Alert otherMessage = crash();
+        otherMessage.setMessage("Server exited with code 137");
+        assertTrue(send(otherMessage));
+        Alert otherDestinations = crash();
+        otherDestinations.setDestinations(List.of(AlertDestination.DISCORD));
+        assertTrue(send(otherDestinations));
+
+        assertFalse(send(crash()));
+    }
+
+    @Test
+    @DisplayName("Should send untitled alerts whose messages differ")
+    void shouldSendUntitledAlertsWithDifferentMessages() {
+        // As the server wrapper sends its restart countdown
+        for (int minutes = 5; minutes > 0; minutes--) {
+            Alert countdown = Alert.builder()
+                .message("Server restarting in " + minutes + " minutes")
+                .level(AlertLevel.INFO)
+                .source("minecraft-server")
+                .build();
+            assertTrue(send(countdown));
+        }
+        assertEquals(0.0, meterRegistry.get("alerts.suppressed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should submit only one of several identical alerts arriving together")
+    void shouldSubmitOneOfConcurrentIdenticalAlerts() throws Exception {
+        AtomicInteger submitted = new AtomicInteger();
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AlertDeduplicator.Outcome>> outcomes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                outcomes.add(senders.submit(() -> deduplicator.submit(crash(), alert -> {
+                    submitted.incrementAndGet();
+                    return true;
+                })));
+            }
+
+            int accepted = 0;
+            for (Future<AlertDeduplicator.Outcome> outcome : outcomes) {
+                if (outcome.get(5, TimeUnit.SECONDS) == AlertDeduplicator.Outcome.ACCEPTED) {
+                    accepted++;
+                }
+            }
+            assertEquals(1, accepted);
+            assertEquals(1, submitted.get());
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should forget alerts not seen for a whole window")
+    void shouldForgetAlertsNotSeenForWindow() {
+        send(crash());
+        send(alert("backup", "Backup Failed", AlertLevel.ERROR));
+        assertEquals(2, deduplicator.size());
+
+        now.addAndGet(WINDOW_MS);
+        Alert next = crash();
+        assertTrue(send(next));
+
+        assertEquals(1, deduplicator.size());
+        assertEquals("Server exited", next.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should track at most the maximum number of alerts")
+    void shouldTrackAtMostMaxKeys() {
+        for (int i = 0; i < 150; i++) {
+            send(alert("test", "Alert " + i, AlertLevel.INFO));
+        }
+
+        assertEquals(100, deduplicator.size());
+        // The oldest were forgotten, so they are sent again
+        assertTrue(send(alert("test", "Alert 0", AlertLevel.INFO)));
+        assertFalse(send(alert("test", "Alert 149", AlertLevel.INFO)));
+    }
+
+    @Test
+    @DisplayName("Should not suppress a retry of an alert that was not sent")
+    void shouldNotSuppressRetryOfUnsentAlert() {
+        // Rejected, for example because the queue was full
+        Alert rejected = crash();
+        assertEquals(AlertDeduplicator.Outcome.REJECTED, deduplicator.submit(rejected, alert -> false));
+        assertEquals("Server exited", rejected.getMessage());
+
+        now.addAndGet(1_000);
+        assertTrue(send(crash()));
+        assertFalse(send(crash()));
+    }
+
+    @Test
+    @DisplayName("Should suppress nothing when the window is zero")
+    void shouldSuppressNothingWhenDisabled() {
+        deduplicator = new AlertDeduplicator(new SimpleMeterRegistry(), 0, 100, now::get);
+
+        assertTrue(send(crash()));
+        assertTrue(send(crash()));
+    }
+
+    // Submit an alert that is always accepted unless it is a duplicate
+    private boolean send(Alert alert) {
+        return deduplicator.submit(alert, submitted -> true) == AlertDeduplicator.Outcome.ACCEPTED;
+    }
+
+    private static Alert crash() {
+        return alert("wrapper", "Minecraft Server Crashed", AlertLevel.ERROR);
+    }
+
+    private static Alert alert(String source, String title, AlertLevel level) {
+        return Alert.builder()
+            .title(title)
+            .message("Server exited")
+            .level(level)
+            .source(source)
+            .build();
+    }
+}
@@ -0,0 +1,292 @@
+package com.openmc.alertmanager.service;
+
+import com.openmc.alertmanager.exception.AlertException;
+import com.openmc.alertmanager.exception.AlertRetryLaterException;
+import com.openmc.alertmanager.model.Alert;
+import com.openmc.alertmanager.model.AlertDestination;
+import com.openmc.alertmanager.model.AlertLevel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AlertDispatcher Tests")
+class AlertDispatcherTest {
+
+    private static final List<AlertDestination> BOTH = List.of(AlertDestination.DISCORD, AlertDestination.MINECRAFT);
+
+    private AlertService alertService;
+    private MeterRegistry meterRegistry;
+    private AlertDispatcher dispatcher;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        alertService = mock(AlertService.class);
+        when(alertService.resolveDestinations(any())).thenReturn(List.of(AlertDestination.DISCORD));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should send accepted alerts in the background in order")
+    void shouldSendAcceptedAlertsInBackground() throws Exception {
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, settings(10, 1000), null);
+        Alert first = alert("First");
+        Alert second = alert("Second");
+
+        assertTrue(dispatcher.submit(first));
+        assertTrue(dispatcher.submit(second));
+
+        var inOrder = inOrder(alertService);
+        inOrder.verify(alertService, timeout(1000)).sendTo(eq(AlertDestination.DISCORD), eq(List.of(first)), anyLong());
+        inOrder.verify(alertService, timeout(1000))
+            .sendTo(eq(AlertDestination.DISCORD), eq(List.of(second)), anyLong());
+        assertEquals(2.0, meterRegistry.get("alerts.accepted").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should accept alerts without waiting on a slow destination")
+    void shouldAcceptAlertsWithoutWaitingOnSlowDestination() throws Exception {
+        blockDispatch(AlertDestination.DISCORD);
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, settings(100, 10000), null);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(dispatcher.submit(alert("Alert " + i)));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    @DisplayName("Should keep sending to a healthy destination while another is stuck")
+    void shouldKeepSendingToHealthyDestinationWhileAnotherIsStuck() throws Exception {
+        when(alertService.resolveDestinations(any())).thenReturn(BOTH);
+        blockDispatch(AlertDestination.DISCORD);
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, settings(10, 10000), null);
+
+        for (int i = 0; i < 3; i++) {
+            dispatcher.submit(alert("Countdown " + i));
+        }
+
+        verify(alertService, timeout(500).times(3)).sendTo(eq(AlertDestination.MINECRAFT), anyList(), anyLong());
+        verify(alertService, times(1)).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        assertEquals(2, dispatcher.getQueueDepth(AlertDestination.DISCORD));
+        assertEquals(0, dispatcher.getQueueDepth(AlertDestination.MINECRAFT));
+    }
+
+    @Test
+    @DisplayName("Should give up on a send after the destination timeout")
+    void shouldGiveUpOnSendAfterTimeout() throws Exception {
+        Alert hung = alert("Hung");
+        Alert next = alert("Next");
+        doAnswer(invocation -> {
+            Thread.sleep(10000);
+            return null;
+        }).when(alertService).sendTo(eq(AlertDestination.DISCORD), eq(List.of(hung)), anyLong());
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, settings(10, 200), null);
+
+        dispatcher.submit(hung);
+        dispatcher.submit(next);
+
+        verify(alertService, timeout(1000)).sendTo(eq(AlertDestination.DISCORD), eq(List.of(next)), anyLong());
+        assertEquals(1.0, meterRegistry.get("alerts.destination.timeouts").tag("destination", "discord")
+            .counter().count());
+    }
+
+    @Test
+    @DisplayName("Should send a burst of alerts to a batching destination together")
+    void shouldBatchBurstOfAlerts() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<Alert> alerts = invocation.getArgument(1);
+            batches.add(alerts.stream().map(Alert::getTitle).toList());
+            return null;
+        }).when(alertService).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        AlertDispatcher.DestinationSettings single = new AlertDispatcher.DestinationSettings(100, 1000, 1, 0);
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1,
+                                         Map.of(AlertDestination.DISCORD,
+                                                new AlertDispatcher.DestinationSettings(100, 1000, 10, 1000),
+                                                AlertDestination.MINECRAFT, single),
+                                         null);
+
+        for (int i = 0; i < 25; i++) {
+            dispatcher.submit(alert("Alert " + i));
+        }
+
+        verify(alertService, timeout(3000).times(3)).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        assertEquals(List.of(10, 10, 5), batches.stream().map(List::size).toList());
+        assertEquals("Alert 0", batches.get(0).get(0));
+        assertEquals("Alert 24", batches.get(2).get(4));
+        assertEquals(25.0, meterRegistry.get("alerts.dispatch.batch.size").tag("destination", "discord")
+            .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should reject alerts for a destination once its queue is full")
+    void shouldRejectAlertsWhenQueueFull() throws Exception {
+        blockDispatch(AlertDestination.DISCORD);
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, settings(2, 10000), null);
+
+        // The first alert is taken by the worker, which then blocks
+        assertTrue(dispatcher.submit(alert("In flight")));
+        verify(alertService, timeout(1000)).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        assertTrue(dispatcher.submit(alert("Queued 1")));
+        assertTrue(dispatcher.submit(alert("Queued 2")));
+
+        assertFalse(dispatcher.submit(alert("Rejected")));
+        assertEquals(2, dispatcher.getQueueDepth(AlertDestination.DISCORD));
+        assertEquals(1.0, meterRegistry.get("alerts.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("alerts.queue.depth").tag("destination", "discord").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep dispatching after an alert fails")
+    void shouldKeepDispatchingAfterFailure() throws Exception {
+        Alert failing = alert("Failing");
+        Alert next = alert("Next");
+        doThrow(new AlertException("boom")).when(alertService)
+            .sendTo(eq(AlertDestination.DISCORD), eq(List.of(failing)), anyLong());
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, settings(10, 1000), null);
+
+        dispatcher.submit(failing);
+        dispatcher.submit(next);
+
+        verify(alertService, timeout(1000)).sendTo(eq(AlertDestination.DISCORD), eq(List.of(next)), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should send a rate limited alert again after the limit resets, ahead of later alerts")
+    void shouldResendRateLimitedAlertAfterReset() throws Exception {
+        Alert limited = alert("Limited");
+        Alert next = alert("Next");
+        doThrow(new AlertRetryLaterException("rate limited", 100)).doNothing().when(alertService)
+            .sendTo(eq(AlertDestination.DISCORD), eq(List.of(limited)), anyLong());
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1, settings(10, 1000), null);
+
+        dispatcher.submit(limited);
+        dispatcher.submit(next);
+
+        var inOrder = inOrder(alertService);
+        inOrder.verify(alertService, timeout(1000).times(2))
+            .sendTo(eq(AlertDestination.DISCORD), eq(List.of(limited)), anyLong());
+        inOrder.verify(alertService, timeout(1000)).sendTo(eq(AlertDestination.DISCORD), eq(List.of(next)), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should send again only the alerts of a batch not delivered before a rate limit")
+    void shouldResendOnlyUndeliveredAlertsAfterRateLimit() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        AtomicInteger sends = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<Alert> alerts = invocation.getArgument(1);
+            batches.add(alerts.stream().map(Alert::getTitle).toList());
+            if (sends.incrementAndGet() == 1) {
+                // The first of the batch's webhook messages went out before the limit was hit
+                throw new AlertRetryLaterException("rate limited", 100, 2);
+            }
+            return null;
+        }).when(alertService).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 1,
+                                         Map.of(AlertDestination.DISCORD,
+                                                new AlertDispatcher.DestinationSettings(100, 1000, 10, 200),
+                                                AlertDestination.MINECRAFT,
+                                                new AlertDispatcher.DestinationSettings(100, 1000, 1, 0)),
+                                         null);
+
+        for (int i = 0; i < 3; i++) {
+            dispatcher.submit(alert("Alert " + i));
+        }
+
+        verify(alertService, timeout(3000).times(2)).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        assertEquals(List.of(List.of("Alert 0", "Alert 1", "Alert 2"), List.of("Alert 2")), batches);
+    }
+
+    @Test
+    @DisplayName("Should drain queued alerts on shutdown")
+    void shouldDrainQueuedAlertsOnShutdown() throws Exception {
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 5, settings(10, 1000), null);
+        for (int i = 0; i < 5; i++) {
+            dispatcher.submit(alert("Alert " + i));
+        }
+
+        dispatcher.shutdown();
+
+        verify(alertService, times(5)).sendTo(eq(AlertDestination.DISCORD), anyList(), anyLong());
+        assertFalse(dispatcher.submit(alert("After shutdown")));
+    }
+
+    @Test
+    @DisplayName("Should resend journaled alerts that were not delivered before a restart")
+    void shouldResendUndeliveredAlertsAfterRestart(@TempDir Path directory) throws Exception {
+        when(alertService.resolveDestinations(any())).thenReturn(BOTH);
+        Alert delivered = alert("Delivered");
+        Alert partial = alert("Partly delivered");
+        doThrow(new AlertException("Discord down")).when(alertService)
+            .sendTo(eq(AlertDestination.DISCORD), eq(List.of(partial)), anyLong());
+        dispatcher = new AlertDispatcher(alertService, meterRegistry, 5, settings(10, 1000),
+                                         new AlertJournal(directory, 10, TimeUnit.HOURS.toMillis(1)));
+        dispatcher.submit(delivered);
+        dispatcher.submit(partial);
+        dispatcher.shutdown();
+
+        AlertService restarted = mock(AlertService.class);
+        dispatcher = new AlertDispatcher(restarted, new SimpleMeterRegistry(), 5, settings(10, 1000),
+                                         new AlertJournal(directory, 10, TimeUnit.HOURS.toMillis(1)));
+
+        verify(restarted, timeout(1000)).sendTo(eq(AlertDestination.DISCORD),
+                                                argThat((List<Alert> alerts) -> "Partly delivered".equals(alerts.get(0).getTitle())),
+                                                anyLong());
+        dispatcher.shutdown();
+        verify(restarted, times(1)).sendTo(any(), anyList(), anyLong());
+    }
+
+    private void blockDispatch(AlertDestination destination) throws Exception {
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(alertService).sendTo(eq(destination), anyList(), anyLong());
+    }
+
+    private static Map<AlertDestination, AlertDispatcher.DestinationSettings> settings(int queueCapacity,
+                                                                                        long timeoutMs) {
+        AlertDispatcher.DestinationSettings settings =
+            new AlertDispatcher.DestinationSettings(queueCapacity, timeoutMs, 1, 0);
+        return Map.of(AlertDestination.DISCORD, settings, AlertDestination.MINECRAFT, settings);
+    }
+
+    private static Alert alert(String title) {
+        return Alert.builder()
+            .title(title)
+            .message("message")
+            .level(AlertLevel.INFO)
+            .source("test")
+            .build();
+    }
+}
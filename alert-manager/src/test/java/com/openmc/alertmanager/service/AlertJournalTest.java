@@ -0,0 +1,172 @@
+package com.openmc.alertmanager.service;
+
+import com.openmc.alertmanager.model.Alert;
+import com.openmc.alertmanager.model.AlertDestination;
+import com.openmc.alertmanager.model.AlertLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AlertJournal Tests")
+class AlertJournalTest {
+
+    private static final long MAX_AGE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final List<AlertDestination> BOTH = List.of(AlertDestination.DISCORD, AlertDestination.MINECRAFT);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay alerts with unacknowledged destinations")
+    void shouldReplayUnacknowledgedAlerts() throws IOException {
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            long delivered = journal.append(alert("Delivered"), BOTH);
+            long partial = journal.append(alert("Partly delivered"), BOTH);
+            journal.append(alert("Not delivered"), List.of(AlertDestination.MINECRAFT));
+            journal.acknowledge(delivered, AlertDestination.DISCORD);
+            journal.acknowledge(delivered, AlertDestination.MINECRAFT);
+            journal.acknowledge(partial, AlertDestination.MINECRAFT);
+        }
+
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            List<AlertJournal.Entry> entries = journal.pendingEntries();
+
+            assertEquals(2, entries.size());
+            assertEquals("Partly delivered", entries.get(0).alert().getTitle());
+            assertEquals(List.of(AlertDestination.DISCORD), entries.get(0).destinations());
+            assertEquals("Not delivered", entries.get(1).alert().getTitle());
+            assertEquals(AlertLevel.WARNING, entries.get(1).alert().getLevel());
+            assertEquals(List.of(AlertDestination.MINECRAFT), entries.get(1).destinations());
+
+            // Ids keep increasing across restarts so old acknowledgements cannot match new alerts
+            assertTrue(journal.append(alert("Next"), BOTH) > entries.get(1).id());
+        }
+    }
+
+    @Test
+    @DisplayName("Should truncate the file once every alert is delivered")
+    void shouldTruncateOnceEverythingDelivered() throws IOException {
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            long id = journal.append(alert("Alert"), BOTH);
+            assertTrue(journal.size() > 0);
+
+            journal.acknowledge(id, AlertDestination.DISCORD);
+            assertTrue(journal.size() > 0);
+            journal.acknowledge(id, AlertDestination.MINECRAFT);
+
+            assertEquals(0, journal.size());
+            assertTrue(journal.pendingEntries().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover from a torn write at the end of the file")
+    void shouldRecoverFromTornWrite() throws IOException {
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            journal.append(alert("Complete"), BOTH);
+        }
+        Path file = directory.resolve(AlertJournal.FILE_NAME);
+        long validLength = Files.size(file);
+        // A record header promising more bytes than were written
+        Files.write(file, new byte[] {0, 0, 0, 100, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            assertEquals(List.of("Complete"),
+                         journal.pendingEntries().stream().map(entry -> entry.alert().getTitle()).toList());
+            assertEquals(validLength, Files.size(file));
+
+            journal.append(alert("After recovery"), BOTH);
+        }
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            assertEquals(2, journal.pendingEntries().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip a record it cannot read and keep reading the ones after it")
+    void shouldSkipUnreadableRecord() throws IOException {
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            journal.append(alert("Before"), BOTH);
+            journal.append(alert("After"), BOTH);
+        }
+        Path file = directory.resolve(AlertJournal.FILE_NAME);
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        int firstLength = 8 + data.getInt(0);
+        // An acknowledgement naming a destination this version does not know
+        ByteBuffer payload = ByteBuffer.allocate(13);
+        payload.put((byte) 2).putLong(1).putInt(99);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        ByteBuffer unreadable = ByteBuffer.allocate(8 + 13);
+        unreadable.putInt(13).putInt((int) crc.getValue()).put(payload.array());
+        ByteBuffer rewritten = ByteBuffer.allocate(data.capacity() + unreadable.capacity());
+        rewritten.put(data.array(), 0, firstLength).put(unreadable.array())
+            .put(data.array(), firstLength, data.capacity() - firstLength);
+        Files.write(file, rewritten.array());
+
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            assertEquals(List.of("Before", "After"),
+                         journal.pendingEntries().stream().map(entry -> entry.alert().getTitle()).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop undelivered alerts older than the max age")
+    void shouldDropAlertsOlderThanMaxAge() throws IOException {
+        AtomicLong now = new AtomicLong(1_000_000);
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS, now::get)) {
+            journal.append(alert("Old"), BOTH);
+            now.addAndGet(MAX_AGE_MS);
+            journal.append(alert("Recent"), BOTH);
+        }
+        now.addAndGet(1);
+
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS, now::get)) {
+            assertEquals(List.of("Recent"),
+                         journal.pendingEntries().stream().map(entry -> entry.alert().getTitle()).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact the file down to the undelivered alerts")
+    void shouldCompactToUndeliveredAlerts() throws IOException {
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            journal.append(alert("Stuck"), List.of(AlertDestination.DISCORD));
+            String padding = "x".repeat(4000);
+            // About 1.2 MB of delivered alerts, enough to pass the threshold once
+            for (int i = 0; i < 300; i++) {
+                Alert alert = alert("Delivered");
+                alert.setMessage(padding);
+                long id = journal.append(alert, List.of(AlertDestination.MINECRAFT));
+                journal.acknowledge(id, AlertDestination.MINECRAFT);
+            }
+
+            assertTrue(journal.size() < AlertJournal.COMPACT_THRESHOLD_BYTES / 2);
+            assertEquals(1, journal.pendingEntries().size());
+        }
+        try (AlertJournal journal = new AlertJournal(directory, 10, MAX_AGE_MS)) {
+            assertEquals("Stuck", journal.pendingEntries().get(0).alert().getTitle());
+        }
+    }
+
+    private static Alert alert(String title) {
+        return Alert.builder()
+            .title(title)
+            .message("message")
+            .level(AlertLevel.WARNING)
+            .source("test")
+            .build();
+    }
+}
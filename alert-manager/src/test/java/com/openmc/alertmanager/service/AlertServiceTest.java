@@ -1,5 +1,6 @@
 package com.openmc.alertmanager.service;
 
+import com.openmc.alertmanager.exception.AlertException;
 import com.openmc.alertmanager.model.Alert;
 import com.openmc.alertmanager.model.AlertDestination;
 import com.openmc.alertmanager.model.AlertLevel;
@@ -11,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -90,6 +92,17 @@ class AlertServiceTest {
         assertDoesNotThrow(() -> alertService.sendAlert(testAlert));
     }
 
+    @Test
+    @DisplayName("Should report a failed Minecraft message when sending to one destination")
+    void shouldReportFailedMinecraftMessage() throws Exception {
+        when(minecraftMessageService.sendMessage(anyString())).thenReturn(false);
+        assertThrows(AlertException.class, () -> alertService.sendTo(AlertDestination.MINECRAFT, testAlert));
+
+        when(minecraftMessageService.sendMessage(anyString())).thenReturn(true);
+        assertDoesNotThrow(() -> alertService.sendTo(AlertDestination.MINECRAFT, testAlert));
+        verify(discordAlertService, never()).sendAlert(any());
+    }
+
     @Test
     @DisplayName("Should process alerts with different levels")
     void shouldProcessAlertsWithDifferentLevels() throws Exception {
@@ -108,4 +121,17 @@ class AlertServiceTest {
         verify(discordAlertService, times(AlertLevel.values().length)).sendAlert(any());
         verify(minecraftMessageService, times(AlertLevel.values().length)).sendMessage(anyString());
     }
+
+    @Test
+    @DisplayName("Should send a batch of alerts to Discord together")
+    void shouldSendBatchToDiscordTogether() throws Exception {
+        List<Alert> alerts = List.of(testAlert, testAlert);
+
+        long deadline = System.nanoTime() + 1_000_000_000L;
+
+        alertService.sendTo(AlertDestination.DISCORD, alerts, deadline);
+
+        verify(discordAlertService, times(1)).sendAlerts(alerts, deadline);
+        verify(discordAlertService, never()).sendAlert(any());
+    }
 }
@@ -1,14 +1,32 @@
 package com.openmc.alertmanager.service;
 
 import com.openmc.alertmanager.exception.AlertException;
+import com.openmc.alertmanager.exception.AlertRetryLaterException;
 import com.openmc.alertmanager.model.Alert;
 import com.openmc.alertmanager.model.AlertLevel;
+import com.openmc.alertmanager.model.discord.DiscordEmbed;
+import com.openmc.alertmanager.model.discord.DiscordWebhookPayload;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -76,4 +94,87 @@ class DiscordAlertServiceTest {
             assertDoesNotThrow(() -> discordAlertService.sendAlert(alert));
         }
     }
+
+    @Test
+    @DisplayName("Should pack up to ten alerts into each webhook message")
+    void shouldPackUpToTenAlertsIntoEachMessage() {
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            alerts.add(Alert.builder().title("Alert " + i).message("message").level(AlertLevel.ERROR).build());
+        }
+
+        List<DiscordWebhookPayload> payloads = discordAlertService.buildDiscordPayloads(alerts);
+
+        assertEquals(List.of(10, 10, 5), payloads.stream().map(payload -> payload.getEmbeds().size()).toList());
+        assertEquals("Alert 0", payloads.get(0).getEmbeds().get(0).getTitle());
+        assertEquals("Alert 24", payloads.get(2).getEmbeds().get(4).getTitle());
+        assertEquals("Source: unknown", payloads.get(0).getEmbeds().get(0).getFooter().getText());
+    }
+
+    @Test
+    @DisplayName("Should keep each webhook message within the embed character limit")
+    void shouldKeepMessagesWithinCharacterLimit() {
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            alerts.add(Alert.builder().title("Long " + i).message("x".repeat(5000)).level(AlertLevel.INFO)
+                .source("test").build());
+        }
+
+        List<DiscordWebhookPayload> payloads = discordAlertService.buildDiscordPayloads(alerts);
+
+        // Each description is cut to Discord's limit, and only one fits in a message
+        assertEquals(4, payloads.size());
+        DiscordEmbed embed = payloads.get(0).getEmbeds().get(0);
+        assertEquals(4096, embed.getDescription().length());
+        assertTrue(embed.getDescription().endsWith("\u2026"));
+    }
+
+    @Test
+    @DisplayName("Should report the alerts delivered before a later message is rate limited")
+    void shouldReportAlertsDeliveredBeforeRateLimit() throws Exception {
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        AtomicInteger posts = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/webhook", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (posts.incrementAndGet() == 2) {
+                // Limited for longer than the send deadline
+                byte[] response = "{\"retry_after\":0.3,\"global\":false}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(429, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+                return;
+            }
+            Matcher title = Pattern.compile("\"title\":\"([^\"]+)\"").matcher(body);
+            while (title.find()) {
+                delivered.add(title.group(1));
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            DiscordAlertService service = new DiscordAlertService(new DiscordWebhookSender(new RestTemplate(), 3, 10));
+            ReflectionTestUtils.setField(service, "enabled", true);
+            ReflectionTestUtils.setField(service, "webhookUrl",
+                                         "http://localhost:" + server.getAddress().getPort() + "/webhook");
+            List<Alert> alerts = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                alerts.add(Alert.builder().title("Alert " + i).message("message").level(AlertLevel.ERROR).build());
+            }
+
+            AlertRetryLaterException error = assertThrows(AlertRetryLaterException.class,
+                () -> service.sendAlerts(alerts, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100)));
+            assertEquals(10, error.getSentCount());
+
+            // Sending only the rest again, after the limit resets, delivers each alert exactly once
+            service.sendAlerts(alerts.subList(error.getSentCount(), alerts.size()),
+                               System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+            assertEquals(alerts.stream().map(Alert::getTitle).toList(), delivered);
+        } finally {
+            server.stop(0);
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package com.openmc.alertmanager.service;
+
+import com.openmc.alertmanager.exception.AlertException;
+import com.openmc.alertmanager.exception.AlertRetryLaterException;
+import com.openmc.alertmanager.model.discord.DiscordEmbed;
+import com.openmc.alertmanager.model.discord.DiscordWebhookPayload;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DiscordWebhookSender Tests")
+class DiscordWebhookSenderTest {
+
+    private static final DiscordWebhookPayload PAYLOAD = DiscordWebhookPayload.builder()
+        .embeds(List.of(DiscordEmbed.builder().title("Test").build()))
+        .build();
+
+    private HttpServer server;
+    private String webhookUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private DiscordWebhookSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+        webhookUrl = "http://localhost:" + server.getAddress().getPort() + "/webhook";
+        sender = new DiscordWebhookSender(new RestTemplate(), 3, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should wait for the bucket to reset once it is used up")
+    void shouldWaitForBucketResetWhenUsedUp() throws Exception {
+        // Like Discord: two requests per 300 ms window starting at the first request, then
+        // 429s until it resets
+        long[] windowStart = {0};
+        int[] used = {0};
+        AtomicInteger tooManyRequests = new AtomicInteger();
+        server.createContext("/webhook", exchange -> {
+            requests.incrementAndGet();
+            synchronized (used) {
+                long now = System.nanoTime();
+                if (windowStart[0] == 0 || now - windowStart[0] >= TimeUnit.MILLISECONDS.toNanos(300)) {
+                    windowStart[0] = now;
+                    used[0] = 0;
+                }
+                // Rounded up to milliseconds like Discord's header
+                double resetAfter = Math.ceil((TimeUnit.MILLISECONDS.toNanos(300) - (now - windowStart[0])) / 1e6)
+                    / 1000;
+                exchange.getResponseHeaders().set("X-RateLimit-Reset-After", String.valueOf(resetAfter));
+                if (used[0] >= 2) {
+                    tooManyRequests.incrementAndGet();
+                    exchange.getResponseHeaders().set("X-RateLimit-Remaining", "0");
+                    respond(exchange, 429, "{\"retry_after\":" + resetAfter + ",\"global\":false}");
+                    return;
+                }
+                used[0]++;
+                exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(2 - used[0]));
+            }
+            respond(exchange, 204, null);
+        });
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            sender.send(webhookUrl, PAYLOAD, deadline());
+        }
+
+        assertEquals(0, tooManyRequests.get());
+        assertEquals(5, requests.get());
+        // Five requests at two per window need at least two resets
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(550));
+    }
+
+    @Test
+    @DisplayName("Should retry after the retry_after Discord gives with a 429")
+    void shouldRetryAfterTooManyRequests() throws Exception {
+        server.createContext("/webhook", exchange -> {
+            if (requests.incrementAndGet() == 1) {
+                respond(exchange, 429, "{\"message\":\"You are being rate limited.\",\"retry_after\":0.2,"
+                                       + "\"global\":true}");
+            } else {
+                respond(exchange, 204, null);
+            }
+        });
+
+        long start = System.nanoTime();
+        sender.send(webhookUrl, PAYLOAD, deadline());
+
+        assertEquals(2, requests.get());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    @DisplayName("Should give up at once on a rate limit that resets after the deadline")
+    void shouldGiveUpOnRateLimitPastDeadline() {
+        server.createContext("/webhook", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 429, "{\"retry_after\":30,\"global\":false}");
+        });
+
+        long start = System.nanoTime();
+        AlertRetryLaterException e = assertThrows(AlertRetryLaterException.class, () ->
+            sender.send(webhookUrl, PAYLOAD, System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+
+        assertEquals(1, requests.get());
+        assertTrue(e.getRetryAfterMs() >= 30_000);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("Should retry server errors and give up after the max retries")
+    void shouldGiveUpAfterMaxRetries() {
+        server.createContext("/webhook", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 502, "Bad Gateway");
+        });
+
+        assertThrows(AlertException.class, () -> sender.send(webhookUrl, PAYLOAD, deadline()));
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry a payload Discord refuses")
+    void shouldNotRetryRefusedPayload() {
+        server.createContext("/webhook", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 400, "{\"message\":\"Invalid Form Body\",\"code\":50035}");
+        });
+
+        assertThrows(AlertException.class, () -> sender.send(webhookUrl, PAYLOAD, deadline()));
+        assertEquals(1, requests.get());
+    }
+
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
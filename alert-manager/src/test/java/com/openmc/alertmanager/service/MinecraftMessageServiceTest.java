@@ -1,11 +1,23 @@
 package com.openmc.alertmanager.service;
 
+import com.openmc.rcon.FakeRconServer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -18,6 +30,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("MinecraftMessageService Tests")
 class MinecraftMessageServiceTest {
 
+    private static final Duration KEEPALIVE = Duration.ofMinutes(1);
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(5);
+
     @Autowired
     private MinecraftMessageService minecraftMessageService;
 
@@ -45,4 +60,172 @@ class MinecraftMessageServiceTest {
     void shouldHandleEmptyMessageGracefully() {
         assertDoesNotThrow(() -> minecraftMessageService.sendMessage(""));
     }
+
+    @Test
+    @DisplayName("Should send every message over one RCON session")
+    void shouldReuseOneSession() throws Exception {
+        List<String> commands = new CopyOnWriteArrayList<>();
+        try (FakeRconServer server = new FakeRconServer("test", command -> {
+            commands.add(command);
+            return "";
+        })) {
+            MinecraftMessageService service = new MinecraftMessageService("localhost", server.getPort(), "test",
+                                                                          true, KEEPALIVE, SEND_TIMEOUT);
+            try {
+                for (int i = 5; i > 0; i--) {
+                    assertTrue(service.sendMessage("Restarting in " + i));
+                }
+
+                assertEquals(1, server.getConnectionCount());
+                assertEquals("say Restarting in 5", commands.get(0));
+                assertEquals(5, commands.size());
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should send messages from several callers one at a time over one session")
+    void shouldSendConcurrentMessagesOneAtATime() throws Exception {
+        List<String> commands = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try (FakeRconServer server = new FakeRconServer("test", command -> {
+            commands.add(command);
+            // Hold the first message so the rest queue up behind it
+            if (command.equals("say First")) {
+                awaitQuietly(release);
+            }
+            return "";
+        })) {
+            MinecraftMessageService service = new MinecraftMessageService("localhost", server.getPort(), "test",
+                                                                          true, KEEPALIVE, SEND_TIMEOUT);
+            ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+            try {
+                Future<Boolean> first = callers.submit(() -> service.sendMessage("First"));
+                while (commands.isEmpty()) {
+                    Thread.sleep(10);
+                }
+                List<Future<Boolean>> rest = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    String message = "Message " + i;
+                    rest.add(callers.submit(() -> service.sendMessage(message)));
+                }
+                Thread.sleep(100);
+                release.countDown();
+
+                assertTrue(first.get(5, TimeUnit.SECONDS));
+                for (Future<Boolean> result : rest) {
+                    assertTrue(result.get(5, TimeUnit.SECONDS));
+                }
+                assertEquals(11, commands.size());
+                assertEquals("say First", commands.get(0));
+                assertEquals(1, server.getConnectionCount());
+                assertEquals(0, server.getRejectedReadCount());
+            } finally {
+                release.countDown();
+                callers.shutdownNow();
+                service.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reconnect after the server drops the session")
+    void shouldReconnectAfterSessionDropped() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("test", command -> "")) {
+            MinecraftMessageService service = new MinecraftMessageService("localhost", server.getPort(), "test",
+                                                                          true, KEEPALIVE, SEND_TIMEOUT);
+            try {
+                assertTrue(service.sendMessage("Before restart"));
+                server.disconnectClients();
+
+                assertTrue(service.sendMessage("After restart"));
+                assertEquals(2, server.getConnectionCount());
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep an idle session alive")
+    void shouldKeepIdleSessionAlive() throws Exception {
+        List<String> commands = new CopyOnWriteArrayList<>();
+        try (FakeRconServer server = new FakeRconServer("test", command -> {
+            commands.add(command);
+            return "";
+        })) {
+            MinecraftMessageService service = new MinecraftMessageService("localhost", server.getPort(), "test",
+                                                                          true, Duration.ofMillis(100), SEND_TIMEOUT);
+            try {
+                assertTrue(service.sendMessage("Hello"));
+                Thread.sleep(350);
+
+                assertTrue(commands.stream().filter("list"::equals).count() >= 2);
+                assertEquals(1, server.getConnectionCount());
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should not send a message after giving up on it")
+    void shouldNotSendMessageAfterTimeout() throws Exception {
+        List<String> commands = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try (FakeRconServer server = new FakeRconServer("test", command -> {
+            commands.add(command);
+            if (command.equals("say Held")) {
+                awaitQuietly(release);
+            }
+            return "";
+        })) {
+            MinecraftMessageService service = new MinecraftMessageService("localhost", server.getPort(), "test",
+                                                                          true, KEEPALIVE, Duration.ofMillis(200));
+            ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+            try {
+                Future<Boolean> held = callers.submit(() -> service.sendMessage("Held"));
+                while (commands.isEmpty()) {
+                    Thread.sleep(10);
+                }
+                // Times out queued behind the held message
+                assertFalse(service.sendMessage("Stale"));
+                release.countDown();
+                held.get(5, TimeUnit.SECONDS);
+
+                service.sendMessage("Fresh");
+                assertEquals(List.of("say Held", "say Fresh"), commands);
+            } finally {
+                release.countDown();
+                callers.shutdownNow();
+                service.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should report a message that could not be sent")
+    void shouldReportUnsentMessage() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        MinecraftMessageService service = new MinecraftMessageService("localhost", port, "test", true,
+                                                                      KEEPALIVE, SEND_TIMEOUT);
+        try {
+            assertFalse(service.sendMessage("Nobody listening"));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -80,7 +80,7 @@ send_alert() {
         
         if [ "$curl_output" = "CURL_FAILED" ]; then
             log_warning "Alert failed: curl command failed (connection error or timeout)" >&2
-        elif [ "$http_code" = "200" ] || [ "$http_code" = "201" ]; then
+        elif [ "$http_code" = "200" ] || [ "$http_code" = "201" ] || [ "$http_code" = "202" ]; then
             log_success "Alert sent successfully (HTTP $http_code)" >&2
         else
             log_warning "Alert failed: HTTP $http_code" >&2
@@ -0,0 +1,468 @@
+package com.openmc.rcon;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking RCON client. All socket I/O happens on a shared {@link RconEventLoop}
+ * thread using reusable direct buffers, so any number of threads can queue commands
+ * on one connection without a thread blocked per command.
+ * <p>
+ * The Minecraft server handles one packet per socket read and drops the connection
+ * when a read holds more, so a connection has at most one command in flight. Queued
+ * commands are sent one after another; use an {@link RconConnectionPool} to run
+ * commands in parallel.
+ */
+public class RconClient implements AutoCloseable {
+    
+    private static final int SERVERDATA_AUTH = 3;
+    private static final int SERVERDATA_AUTH_RESPONSE = 2;
+    private static final int SERVERDATA_EXECCOMMAND = 2;
+    private static final int SERVERDATA_RESPONSE_VALUE = 0;
+    
+    private static final int HEADER_SIZE = 12; // 4 (size) + 4 (id) + 4 (type)
+    private static final int MAX_PACKET_SIZE = 1024 * 1024;
+    private static final int MAX_REQUEST_SIZE = 1460; // The server reads at most this much per packet
+    private static final int IO_BUFFER_SIZE = 8192;
+    private static final int RESPONSE_BUFFER_SIZE = 4096;
+    private static final int MAX_RETAINED_RESPONSE_BUFFER_SIZE = 64 * 1024;
+    private static final long TIMEOUT_MS = 5000;
+    
+    private final SocketChannel channel;
+    private final RconEventLoop eventLoop;
+    private final RconMetrics metrics;
+    private final AtomicInteger requestIds = new AtomicInteger();
+    private final Queue<Outbound> outbound = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, PendingCommand> pending = new ConcurrentHashMap<>();
+    private final CompletableFuture<Boolean> authentication = new CompletableFuture<>();
+    private volatile boolean closed;
+    private int authRequestId;
+    
+    // Only touched on the event loop thread
+    private SelectionKey selectionKey;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer readBuffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private byte[] responseBuffer = new byte[RESPONSE_BUFFER_SIZE];
+    private int responseLength;
+    private Outbound inFlight;
+    private boolean sentinelSent;
+    
+    public RconClient(String host, int port, String password) throws IOException {
+        this(host, port, password, RconEventLoop.getDefault(), RconMetrics.NOOP);
+    }
+    
+    public RconClient(String host, int port, String password, RconEventLoop eventLoop,
+                      RconMetrics metrics) throws IOException {
+        long connectStart = System.nanoTime();
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        if (address.isUnresolved()) {
+            throw new UnknownHostException(host);
+        }
+        
+        this.eventLoop = eventLoop;
+        this.metrics = metrics;
+        this.channel = SocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.socket().connect(address, (int) TIMEOUT_MS);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        
+        // Authenticate
+        authRequestId = requestIds.incrementAndGet();
+        outbound.add(new Outbound(SERVERDATA_AUTH, password, authRequestId, null));
+        eventLoop.execute(this::register);
+        authentication.orTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        
+        boolean authenticated;
+        try {
+            authenticated = await(authentication);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        if (!authenticated) {
+            close();
+            throw new IOException("Authentication failed");
+        }
+        metrics.connectionOpened(System.nanoTime() - connectStart);
+    }
+    
+    public String sendCommand(String command) throws IOException {
+        return await(sendCommandAsync(command));
+    }
+    
+    /**
+     * Send several commands one after another and collect the responses.
+     *
+     * @return responses in the same order as the commands
+     */
+    public List<String> sendCommands(List<String> commands) throws IOException {
+        return await(sendCommandsAsync(commands));
+    }
+    
+    public CompletableFuture<String> sendCommandAsync(String command) {
+        return sendCommandsAsync(List.of(command)).thenApply(responses -> responses.get(0));
+    }
+    
+    /**
+     * Queue commands to be sent one after another. Responses are matched to their
+     * commands by request id.
+     * <p>
+     * The server splits long output into several packets. Once the first fragment of
+     * a command's output arrives, an empty SERVERDATA_RESPONSE_VALUE packet is sent.
+     * The server answers it only after the last fragment, so its reply marks the end
+     * of the response. Sending it any earlier would put it in the same server read as
+     * the command, which the server rejects. Fragments are streamed into a reusable
+     * buffer and decoded once.
+     * <p>
+     * The future is completed on the event loop thread, so dependent stages that
+     * block must use the async variants of the CompletableFuture methods.
+     *
+     * @return future completed with the responses in the same order as the commands
+     */
+    public CompletableFuture<List<String>> sendCommandsAsync(List<String> commands) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("Connection closed"));
+        }
+        
+        List<CompletableFuture<String>> futures = sendEachAsync(commands);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+    
+    /**
+     * Queue commands as {@link #sendCommandsAsync} does, but with one future per
+     * command, so callers can use the responses that arrive even when others fail or
+     * time out.
+     * <p>
+     * A command the server does not answer in time leaves the connection waiting on a
+     * reply that may never come, so the connection is closed and the commands queued
+     * behind it fail.
+     *
+     * @return futures in the same order as the commands
+     */
+    public List<CompletableFuture<String>> sendEachAsync(List<String> commands) {
+        if (closed) {
+            return Collections.nCopies(commands.size(),
+                                       CompletableFuture.failedFuture(new IOException("Connection closed")));
+        }
+        
+        List<CompletableFuture<String>> futures = new ArrayList<>(commands.size());
+        for (String command : commands) {
+            long queuedAt = System.nanoTime();
+            int requestId = requestIds.incrementAndGet();
+            PendingCommand pendingCommand = new PendingCommand(requestId, requestIds.incrementAndGet());
+            pending.put(pendingCommand.requestId, pendingCommand);
+            futures.add(pendingCommand.future.orTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> {
+                    pending.remove(pendingCommand.requestId);
+                    metrics.commandCompleted(System.nanoTime() - queuedAt, error == null);
+                    if (error instanceof TimeoutException) {
+                        eventLoop.execute(() -> abandon(pendingCommand));
+                    }
+                }));
+            outbound.add(new Outbound(SERVERDATA_EXECCOMMAND, command, requestId, pendingCommand));
+        }
+        eventLoop.execute(this::flush);
+        if (closed) {
+            // Closed while queueing; make sure nothing is left waiting for the timeout
+            failPending(new IOException("Connection closed"));
+        }
+        return futures;
+    }
+    
+    /**
+     * Whether the connection is usable. The event loop notices a server-side close
+     * as soon as it happens, so this check costs nothing.
+     */
+    public boolean isAlive() {
+        return !closed && channel.isOpen();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        channel.close();
+        failPending(new IOException("Connection closed"));
+        metrics.connectionClosed();
+    }
+    
+    private void register() {
+        try {
+            selectionKey = eventLoop.register(channel, new EventHandler());
+            flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+    
+    /**
+     * Send the next queued packet once the previous one has been answered, then write
+     * whatever is buffered
+     */
+    private void flush() {
+        if (selectionKey == null || !selectionKey.isValid()) {
+            return;
+        }
+        try {
+            Outbound next;
+            while (inFlight == null && (next = outbound.poll()) != null) {
+                if (next.command != null && next.command.future.isDone()) {
+                    // Timed out while queued
+                    continue;
+                }
+                // UTF-8 needs at most three bytes per UTF-16 char
+                if (HEADER_SIZE + 2 + next.payload.length() * 3 > writeBuffer.remaining()) {
+                    reject(next, new IOException("Command too long for RCON"));
+                    continue;
+                }
+                int start = writeBuffer.position();
+                writePacket(next.requestId, next.type, next.payload);
+                if (writeBuffer.position() - start > MAX_REQUEST_SIZE) {
+                    writeBuffer.position(start);
+                    reject(next, new IOException("Command too long for RCON"));
+                    continue;
+                }
+                inFlight = next;
+                sentinelSent = false;
+                responseLength = 0;
+            }
+            
+            selectionKey.interestOps(drainWriteBuffer()
+                ? SelectionKey.OP_READ
+                : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+    
+    /**
+     * Write as much of the write buffer as the socket accepts
+     *
+     * @return true if the buffer was written completely
+     */
+    private boolean drainWriteBuffer() throws IOException {
+        writeBuffer.flip();
+        channel.write(writeBuffer);
+        boolean drained = !writeBuffer.hasRemaining();
+        writeBuffer.compact();
+        return drained;
+    }
+    
+    private void reject(Outbound packet, IOException cause) {
+        if (packet.command == null) {
+            authentication.completeExceptionally(cause);
+        } else {
+            packet.command.future.completeExceptionally(cause);
+        }
+    }
+    
+    /**
+     * Close the connection if the timed out command is still waiting for its reply,
+     * since a late reply would otherwise hold up every command queued behind it
+     */
+    private void abandon(PendingCommand command) {
+        if (inFlight != null && inFlight.command == command) {
+            fail(new SocketTimeoutException("Timed out waiting for RCON response"));
+        }
+    }
+    
+    private void writePacket(int id, int type, String payload) {
+        int start = writeBuffer.position();
+        writeBuffer.position(start + HEADER_SIZE);
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(payload), writeBuffer, true);
+        encoder.flush(writeBuffer);
+        int payloadSize = writeBuffer.position() - start - HEADER_SIZE;
+        writeBuffer.put((byte) 0);
+        writeBuffer.put((byte) 0);
+        
+        writeBuffer.putInt(start, payloadSize + 10); // 4 (id) + 4 (type) + payload + 2 (null terminators)
+        writeBuffer.putInt(start + 4, id);
+        writeBuffer.putInt(start + 8, type);
+    }
+    
+    private void read() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            throw new EOFException("Connection closed by server");
+        }
+        
+        readBuffer.flip();
+        while (readBuffer.remaining() >= 4) {
+            int start = readBuffer.position();
+            int size = readBuffer.getInt(start);
+            if (size < 10 || size > MAX_PACKET_SIZE) {
+                throw new IOException("Invalid RCON packet size: " + size);
+            }
+            if (readBuffer.remaining() < size + 4) {
+                if (size + 4 > readBuffer.capacity()) {
+                    // Rare oversized packet: grow the buffer to fit it
+                    ByteBuffer larger = ByteBuffer.allocateDirect(size + 4).order(ByteOrder.LITTLE_ENDIAN);
+                    larger.put(readBuffer);
+                    larger.flip();
+                    readBuffer = larger;
+                }
+                break;
+            }
+            
+            handlePacket(readBuffer.getInt(start + 4), readBuffer.getInt(start + 8), start + HEADER_SIZE, size - 10);
+            readBuffer.position(start + 4 + size);
+        }
+        readBuffer.compact();
+    }
+    
+    private void handlePacket(int id, int type, int payloadOffset, int payloadSize) {
+        Outbound current = inFlight;
+        if (current == null) {
+            return;
+        }
+        
+        if (current.command == null) {
+            // Some servers send an empty SERVERDATA_RESPONSE_VALUE ahead of the auth response
+            if (type == SERVERDATA_AUTH_RESPONSE) {
+                inFlight = null;
+                authentication.complete(id == authRequestId);
+                flush();
+            }
+            return;
+        }
+        
+        PendingCommand command = current.command;
+        if (id == command.requestId) {
+            int required = responseLength + payloadSize;
+            if (required > responseBuffer.length) {
+                responseBuffer = Arrays.copyOf(responseBuffer, Math.max(required, responseBuffer.length * 2));
+            }
+            readBuffer.get(payloadOffset, responseBuffer, responseLength, payloadSize);
+            responseLength = required;
+            if (!sentinelSent) {
+                // The server has read the command, so the marker arrives in a read of its own
+                sentinelSent = true;
+                writePacket(command.sentinelId, SERVERDATA_RESPONSE_VALUE, "");
+                flush();
+            }
+            return;
+        }
+        if (id != command.sentinelId) {
+            return;
+        }
+        
+        String response = new String(responseBuffer, 0, responseLength, StandardCharsets.UTF_8);
+        inFlight = null;
+        responseLength = 0;
+        if (responseBuffer.length > MAX_RETAINED_RESPONSE_BUFFER_SIZE) {
+            responseBuffer = new byte[RESPONSE_BUFFER_SIZE];
+        }
+        command.future.complete(response);
+        flush();
+    }
+    
+    private void fail(Exception cause) {
+        if (closed) {
+            failPending(cause);
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already failing
+        }
+        failPending(cause);
+        metrics.connectionClosed();
+    }
+    
+    private void failPending(Exception cause) {
+        authentication.completeExceptionally(cause);
+        for (PendingCommand command : pending.values()) {
+            command.future.completeExceptionally(cause);
+        }
+        outbound.clear();
+    }
+    
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for RCON response");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new SocketTimeoutException("Timed out waiting for RCON response");
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+    
+    private class EventHandler implements RconEventLoop.Handler {
+        
+        @Override
+        public void onReadable() throws IOException {
+            read();
+        }
+        
+        @Override
+        public void onWritable() {
+            flush();
+        }
+        
+        @Override
+        public void onFailure(Exception cause) {
+            fail(cause);
+        }
+    }
+    
+    /**
+     * A packet waiting to be sent; {@code command} is null for the login
+     */
+    private record Outbound(int type, String payload, int requestId, PendingCommand command) {
+    }
+    
+    private static class PendingCommand {
+        private final int requestId;
+        private final int sentinelId;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+        
+        PendingCommand(int requestId, int sentinelId) {
+            this.requestId = requestId;
+            this.sentinelId = sentinelId;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.openmc.rcon;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of long-lived, already authenticated RCON connections.
+ * Reusing connections avoids a TCP connect plus SERVERDATA_AUTH round trip
+ * for every command and keeps the number of RCON threads on the server stable.
+ */
+public class RconConnectionPool implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RconConnectionPool.class);
+    // Waits for a permit and connects for asynchronous operations, off the caller's thread
+    private static final Executor CONNECTOR = runnable -> Thread.ofVirtual().name("rcon-pool-connect")
+        .start(runnable);
+    
+    private final String host;
+    private final int port;
+    private final String password;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final RconMetrics metrics;
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean closed;
+    
+    public RconConnectionPool(String host, int port, String password, int maxSize,
+                              long idleTimeoutMs, long borrowTimeoutMs) {
+        this(host, port, password, maxSize, idleTimeoutMs, borrowTimeoutMs, RconMetrics.NOOP);
+    }
+    
+    public RconConnectionPool(String host, int port, String password, int maxSize,
+                              long idleTimeoutMs, long borrowTimeoutMs, RconMetrics metrics) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.metrics = metrics;
+        this.permits = new Semaphore(maxSize, true);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rcon-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepIntervalMs = Math.max(1000, idleTimeoutMs / 2);
+        maintenance.scheduleWithFixedDelay(this::evictIdleConnections, sweepIntervalMs, sweepIntervalMs,
+                                           TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Run an operation with a pooled connection. If a reused connection turns out
+     * to be broken, it is discarded and the operation is retried once on a fresh one.
+     * Read timeouts are not retried since the server may already have run the command.
+     */
+    public <T> T execute(RconOperation<T> operation) throws IOException {
+        acquirePermit();
+        try {
+            PooledConnection connection = borrowIdleConnection();
+            if (connection != null) {
+                try {
+                    return runAndRelease(connection, operation);
+                } catch (SocketTimeoutException e) {
+                    throw e;
+                } catch (IOException e) {
+                    logger.debug("Pooled RCON connection failed, reconnecting: {}", e.getMessage());
+                }
+            }
+            return runAndRelease(openConnection(), operation);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    /**
+     * Asynchronous variant of {@link #execute}. Waiting for a free connection and
+     * connecting happen on a virtual thread, so this returns straight away. The
+     * connection is held only until the returned future completes, and no thread waits
+     * on the server in the meantime. As with {@link #execute}, a broken reused
+     * connection is retried once on a fresh one.
+     */
+    public <T> CompletableFuture<T> executeAsync(AsyncRconOperation<T> operation) {
+        return CompletableFuture.supplyAsync(() -> start(operation), CONNECTOR).thenCompose(Function.identity());
+    }
+    
+    private <T> CompletableFuture<T> start(AsyncRconOperation<T> operation) {
+        try {
+            acquirePermit();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        PooledConnection connection = borrowIdleConnection();
+        CompletableFuture<T> result;
+        if (connection == null) {
+            result = runAsyncOnNewConnection(operation);
+        } else {
+            // Reconnect off the event loop thread, since connecting waits for that thread
+            result = runAsync(connection, operation).exceptionallyComposeAsync(error -> {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause instanceof TimeoutException || !(cause instanceof IOException)) {
+                    return CompletableFuture.failedFuture(cause);
+                }
+                logger.debug("Pooled RCON connection failed, reconnecting: {}", cause.getMessage());
+                return runAsyncOnNewConnection(operation);
+            }, CONNECTOR);
+        }
+        return result.whenComplete((value, error) -> permits.release());
+    }
+    
+    /**
+     * Number of authenticated connections currently waiting in the pool
+     */
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+    
+    private <T> T runAndRelease(PooledConnection connection, RconOperation<T> operation) throws IOException {
+        T result;
+        try {
+            result = operation.execute(connection.client);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        release(connection);
+        return result;
+    }
+    
+    private <T> CompletableFuture<T> runAsyncOnNewConnection(AsyncRconOperation<T> operation) {
+        try {
+            return runAsync(openConnection(), operation);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    private <T> CompletableFuture<T> runAsync(PooledConnection connection, AsyncRconOperation<T> operation) {
+        CompletableFuture<T> result;
+        try {
+            result = operation.execute(connection.client);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((value, error) -> {
+            if (error == null) {
+                release(connection);
+            } else {
+                closeQuietly(connection);
+            }
+        });
+    }
+    
+    private void acquirePermit() throws IOException {
+        if (closed) {
+            throw new IOException("RCON connection pool is closed");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out waiting for an RCON connection");
+            }
+            metrics.connectionBorrowed(System.nanoTime() - waitStart);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an RCON connection", e);
+        }
+    }
+    
+    private PooledConnection borrowIdleConnection() {
+        long now = System.currentTimeMillis();
+        PooledConnection connection;
+        while ((connection = pollIdle()) != null) {
+            long idleMs = now - connection.lastUsed;
+            if (idleMs >= idleTimeoutMs) {
+                closeQuietly(connection);
+            } else if (!connection.client.isAlive()) {
+                logger.debug("Discarding dead RCON connection after {}ms idle", idleMs);
+                closeQuietly(connection);
+            } else {
+                return connection;
+            }
+        }
+        return null;
+    }
+    
+    private PooledConnection openConnection() throws IOException {
+        return new PooledConnection(new RconClient(host, port, password, RconEventLoop.getDefault(), metrics));
+    }
+    
+    private synchronized PooledConnection pollIdle() {
+        return idleConnections.pollFirst();
+    }
+    
+    private void release(PooledConnection connection) {
+        connection.lastUsed = System.currentTimeMillis();
+        synchronized (this) {
+            if (!closed) {
+                // Most recently used first, so surplus connections age out at the tail
+                idleConnections.addFirst(connection);
+                return;
+            }
+        }
+        closeQuietly(connection);
+    }
+    
+    void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Iterator<PooledConnection> iterator = idleConnections.iterator();
+            while (iterator.hasNext()) {
+                PooledConnection connection = iterator.next();
+                if (now - connection.lastUsed >= idleTimeoutMs || !connection.client.isAlive()) {
+                    iterator.remove();
+                    closeQuietly(connection);
+                }
+            }
+        }
+    }
+    
+    private void closeQuietly(PooledConnection connection) {
+        try {
+            connection.client.close();
+        } catch (IOException e) {
+            logger.debug("Error closing RCON connection: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        synchronized (this) {
+            for (PooledConnection connection : idleConnections) {
+                closeQuietly(connection);
+            }
+            idleConnections.clear();
+        }
+    }
+    
+    /**
+     * Work to perform with a borrowed, authenticated client
+     */
+    @FunctionalInterface
+    public interface RconOperation<T> {
+        T execute(RconClient client) throws IOException;
+    }
+    
+    /**
+     * Asynchronous work to perform with a borrowed, authenticated client
+     */
+    @FunctionalInterface
+    public interface AsyncRconOperation<T> {
+        CompletableFuture<T> execute(RconClient client);
+    }
+    
+    private static class PooledConnection {
+        private final RconClient client;
+        private long lastUsed = System.currentTimeMillis();
+        
+        PooledConnection(RconClient client) {
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.openmc.rcon;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Single selector thread that performs all socket I/O for RCON connections.
+ * Connections never block a caller thread while a command is in flight; callers
+ * get a CompletableFuture that this thread completes when the response arrives.
+ */
+public final class RconEventLoop {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RconEventLoop.class);
+    
+    private static volatile RconEventLoop defaultLoop;
+    
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    
+    public RconEventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Event loop shared by every connection in this JVM, started on first use
+     */
+    public static RconEventLoop getDefault() {
+        RconEventLoop loop = defaultLoop;
+        if (loop == null) {
+            synchronized (RconEventLoop.class) {
+                loop = defaultLoop;
+                if (loop == null) {
+                    try {
+                        loop = new RconEventLoop("rcon-event-loop");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Unable to open RCON selector", e);
+                    }
+                    defaultLoop = loop;
+                }
+            }
+        }
+        return loop;
+    }
+    
+    /**
+     * Run a task on the event loop thread
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+    
+    SelectionKey register(SocketChannel channel, Handler handler) throws ClosedChannelException {
+        return channel.register(selector, SelectionKey.OP_READ, handler);
+    }
+    
+    private void run() {
+        while (true) {
+            try {
+                selector.select();
+                runTasks();
+                
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            } catch (Throwable t) {
+                logger.error("Unexpected error in RCON event loop", t);
+            }
+        }
+    }
+    
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("RCON event loop task failed", e);
+            }
+        }
+    }
+    
+    private void handle(SelectionKey key) {
+        Handler handler = (Handler) key.attachment();
+        try {
+            if (key.isValid() && key.isReadable()) {
+                handler.onReadable();
+            }
+            if (key.isValid() && key.isWritable()) {
+                handler.onWritable();
+            }
+        } catch (IOException | RuntimeException e) {
+            handler.onFailure(e);
+        }
+    }
+    
+    /**
+     * Callbacks invoked on the event loop thread for a registered channel
+     */
+    interface Handler {
+        void onReadable() throws IOException;
+        
+        void onWritable() throws IOException;
+        
+        void onFailure(Exception cause);
+    }
+}
@@ -0,0 +1,43 @@
+package com.openmc.rcon;
+
+/**
+ * Hooks for recording RCON client and pool metrics. All methods default to no-ops,
+ * so implementations only override what they need. Callbacks may run on the event
+ * loop thread and must not block.
+ */
+public interface RconMetrics {
+
+    RconMetrics NOOP = new RconMetrics() {
+    };
+
+    /**
+     * A connection was established and authenticated
+     *
+     * @param connectNanos time spent on the TCP connect and authentication
+     */
+    default void connectionOpened(long connectNanos) {
+    }
+
+    /**
+     * A connection was closed, either deliberately or because it failed
+     */
+    default void connectionClosed() {
+    }
+
+    /**
+     * A command finished
+     *
+     * @param latencyNanos time from queueing the command to its completion
+     * @param success false if the command failed or timed out
+     */
+    default void commandCompleted(long latencyNanos, boolean success) {
+    }
+
+    /**
+     * A caller obtained a pooled connection
+     *
+     * @param waitNanos time spent waiting for a free pool slot
+     */
+    default void connectionBorrowed(long waitNanos) {
+    }
+}
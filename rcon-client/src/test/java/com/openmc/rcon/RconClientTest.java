@@ -0,0 +1,258 @@
+package com.openmc.rcon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RconClient Tests")
+class RconClientTest {
+
+    @Test
+    @DisplayName("Should throw IOException when connecting to invalid host")
+    void shouldThrowExceptionWhenConnectingToInvalidHost() {
+        assertThrows(IOException.class, () -> {
+            new RconClient("invalid-host", 25575, "password");
+        });
+    }
+
+    @Test
+    @DisplayName("Should throw exception when using invalid port")
+    void shouldThrowExceptionWhenUsingInvalidPort() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new RconClient("localhost", 99999, "password");
+        });
+    }
+
+    @Test
+    @DisplayName("Should return batched responses in command order")
+    void shouldReturnBatchedResponsesInCommandOrder() throws IOException {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "response to " + command);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            List<String> responses = client.sendCommands(List.of("list", "tps", "forge tps"));
+
+            assertEquals(List.of("response to list", "response to tps", "response to forge tps"), responses);
+            assertEquals(3, server.getCommandCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should send one packet at a time to a server that handles one packet per read")
+    void shouldSendOnePacketPerServerRead() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> {
+            try {
+                // Give queued packets time to pile up in the server's socket buffer
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "response to " + command;
+        });
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(client.sendCommandAsync("command " + i));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("response to command " + i, futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(0, server.getRejectedReadCount());
+            assertEquals(1, server.getConnectionCount());
+            assertTrue(client.isAlive());
+        }
+    }
+
+    @Test
+    @DisplayName("Should send the end-of-response marker only after the command's first reply")
+    void shouldSendEndMarkerAfterFirstReply() throws Exception {
+        String longOutput = "y".repeat(10000);
+        try (FakeRconServer server = new FakeRconServer("secret", command -> {
+            try {
+                // Anything sent before the reply piles up for the server's next read
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return command.equals("long") ? longOutput : "";
+        });
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertEquals("", client.sendCommand("save-all"));
+            assertEquals(longOutput, client.sendCommand("long"));
+
+            assertEquals(0, server.getRejectedReadCount());
+            assertTrue(client.isAlive());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject commands too long for the server to read in one packet")
+    void shouldRejectCommandsTooLongForOnePacket() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "response to " + command);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertThrows(IOException.class, () -> client.sendCommand("say " + "x".repeat(1500)));
+
+            assertEquals("response to list", client.sendCommand("list"));
+            assertEquals(0, server.getRejectedReadCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep request ids aligned across single and batched commands")
+    void shouldKeepRequestIdsAlignedAcrossCalls() throws IOException {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "response to " + command);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertEquals("response to list", client.sendCommand("list"));
+            assertEquals(List.of("response to a", "response to b"), client.sendCommands(List.of("a", "b")));
+            assertEquals("response to tps", client.sendCommand("tps"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should complete each batched command with its own future")
+    void shouldCompleteEachBatchedCommandSeparately() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "response to " + command)) {
+            RconClient client = new RconClient("localhost", server.getPort(), "secret");
+            List<CompletableFuture<String>> futures = client.sendEachAsync(List.of("list", "tps"));
+
+            assertEquals(2, futures.size());
+            assertEquals("response to list", futures.get(0).get(5, TimeUnit.SECONDS));
+            assertEquals("response to tps", futures.get(1).get(5, TimeUnit.SECONDS));
+
+            client.close();
+            for (CompletableFuture<String> future : client.sendEachAsync(List.of("list", "tps"))) {
+                ExecutionException error = assertThrows(ExecutionException.class,
+                        () -> future.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IOException.class, error.getCause());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw IOException when authentication fails")
+    void shouldThrowExceptionWhenAuthenticationFails() throws IOException {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "")) {
+            assertThrows(IOException.class, () -> new RconClient("localhost", server.getPort(), "wrong"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reassemble responses split across several packets")
+    void shouldReassembleFragmentedResponses() throws IOException {
+        // Multi-byte characters make sure fragments split inside a character decode correctly
+        String longOutput = "§6Player§r: Ünïcødé, ".repeat(800);
+        try (FakeRconServer server = new FakeRconServer("secret", command -> longOutput);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertEquals(longOutput, client.sendCommand("list"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reassemble fragmented responses within a batch")
+    void shouldReassembleFragmentedResponsesWithinBatch() throws IOException {
+        String longOutput = "x".repeat(10000);
+        try (FakeRconServer server = new FakeRconServer("secret",
+                command -> command.equals("long") ? longOutput : "short " + command);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            List<String> responses = client.sendCommands(List.of("a", "long", "b", "long"));
+
+            assertEquals(List.of("short a", longOutput, "short b", longOutput), responses);
+            assertEquals("short c", client.sendCommand("c"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should return empty string for commands without output")
+    void shouldReturnEmptyStringForCommandsWithoutOutput() throws IOException {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "");
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertEquals("", client.sendCommand("save-all"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should queue concurrent asynchronous commands over one connection")
+    void shouldQueueConcurrentAsyncCommands() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "response to " + command);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(client.sendCommandAsync("command " + i));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("response to command " + i, futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, server.getConnectionCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail in-flight commands and report dead when the server disconnects")
+    void shouldFailInFlightCommandsWhenServerDisconnects() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        });
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertTrue(client.isAlive());
+            CompletableFuture<String> inFlight = client.sendCommandAsync("list");
+            Thread.sleep(50);
+            server.disconnectClients();
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> inFlight.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, error.getCause());
+            assertFalse(client.isAlive());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report connection and command metrics")
+    void shouldReportMetrics() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        RconMetrics metrics = new RconMetrics() {
+            @Override
+            public void connectionOpened(long connectNanos) {
+                opened.incrementAndGet();
+            }
+
+            @Override
+            public void connectionClosed() {
+                closed.incrementAndGet();
+            }
+
+            @Override
+            public void commandCompleted(long latencyNanos, boolean success) {
+                if (success) {
+                    succeeded.incrementAndGet();
+                }
+            }
+        };
+
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "ok")) {
+            RconClient client = new RconClient("localhost", server.getPort(), "secret",
+                    RconEventLoop.getDefault(), metrics);
+            client.sendCommands(List.of("list", "tps"));
+            client.close();
+            client.close();
+        }
+
+        assertEquals(1, opened.get());
+        assertEquals(1, closed.get());
+        assertEquals(2, succeeded.get());
+    }
+}
@@ -0,0 +1,156 @@
+package com.openmc.rcon;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RconConnectionPool Tests")
+class RconConnectionPoolTest {
+
+    private FakeRconServer server;
+    private RconConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeRconServer("secret", command -> {
+            if (command.equals("slow")) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "ran " + command;
+        });
+        pool = new RconConnectionPool("localhost", server.getPort(), "secret", 2, 60000, 5000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should reuse one authenticated connection for sequential commands")
+    void shouldReuseConnectionForSequentialCommands() throws IOException {
+        assertEquals("ran list", pool.execute(client -> client.sendCommand("list")));
+        assertEquals("ran tps", pool.execute(client -> client.sendCommand("tps")));
+        assertEquals("ran forge tps", pool.execute(client -> client.sendCommand("forge tps")));
+
+        assertEquals(1, server.getConnectionCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("Should reconnect transparently when the server drops pooled connections")
+    void shouldReconnectWhenServerDropsConnections() throws Exception {
+        pool.execute(client -> client.sendCommand("list"));
+        server.disconnectClients();
+        Thread.sleep(50);
+
+        assertEquals("ran list", pool.execute(client -> client.sendCommand("list")));
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should never open more connections than the pool size")
+    void shouldBoundConnectionsToPoolSize() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> pool.execute(client -> client.sendCommand("slow"))));
+            }
+            for (Future<String> result : results) {
+                assertEquals("ran slow", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(server.getConnectionCount() <= 2);
+        assertEquals(8, server.getCommandCount());
+    }
+
+    @Test
+    @DisplayName("Should hold a connection only until an asynchronous operation completes")
+    void shouldReleaseConnectionWhenAsyncOperationCompletes() throws Exception {
+        String response = pool.executeAsync(client -> client.sendCommandAsync("list")).get(5, TimeUnit.SECONDS);
+
+        assertEquals("ran list", response);
+        assertEquals(1, pool.getIdleCount());
+        assertEquals("ran tps", pool.execute(client -> client.sendCommand("tps")));
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should reconnect asynchronous operations when the server drops pooled connections")
+    void shouldReconnectAsyncOperationsWhenServerDropsConnections() throws Exception {
+        pool.execute(client -> client.sendCommand("list"));
+        server.disconnectClients();
+
+        String response = pool.executeAsync(client -> client.sendCommandAsync("list")).get(5, TimeUnit.SECONDS);
+
+        assertEquals("ran list", response);
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should return from an asynchronous operation without waiting to connect")
+    void shouldConnectAsyncOperationsOffCallerThread() throws Exception {
+        server.setAuthDelayMs(500);
+
+        long start = System.nanoTime();
+        CompletableFuture<String> response = pool.executeAsync(client -> client.sendCommandAsync("list"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 250, "Took " + elapsedMs + "ms");
+        assertFalse(response.isDone());
+        assertEquals("ran list", response.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should evict connections that have been idle past the timeout")
+    void shouldEvictIdleConnections() throws Exception {
+        pool.close();
+        pool = new RconConnectionPool("localhost", server.getPort(), "secret", 2, 20, 5000);
+        pool.execute(client -> client.sendCommand("list"));
+        assertEquals(1, pool.getIdleCount());
+
+        Thread.sleep(50);
+        pool.evictIdleConnections();
+
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("Should not pool connections that fail authentication")
+    void shouldFailWithWrongPassword() {
+        pool.close();
+        pool = new RconConnectionPool("localhost", server.getPort(), "wrong", 2, 60000, 5000);
+
+        assertThrows(IOException.class, () -> pool.execute(client -> client.sendCommand("list")));
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("Should reject commands once closed")
+    void shouldRejectCommandsOnceClosed() {
+        pool.close();
+
+        assertThrows(IOException.class, () -> pool.execute(client -> client.sendCommand("list")));
+    }
+}
@@ -0,0 +1,182 @@
+package com.openmc.rcon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Minimal RCON server for tests that mimics the vanilla Minecraft implementation:
+ * one thread per connection, one packet handled per socket read of at most 1460
+ * bytes, the connection dropped when a read holds anything other than exactly one
+ * packet, responses split into 4096 byte fragments and unknown packet types answered
+ * with "Unknown request".
+ */
+public class FakeRconServer implements AutoCloseable {
+
+    private static final int MAX_FRAGMENT_SIZE = 4096;
+    private static final int READ_BUFFER_SIZE = 1460;
+
+    private final ServerSocket serverSocket;
+    private final String password;
+    private final Function<String, String> commandHandler;
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger commandCount = new AtomicInteger();
+    private final AtomicInteger rejectedReadCount = new AtomicInteger();
+    private volatile long authDelayMs;
+
+    public FakeRconServer(String password, Function<String, String> commandHandler) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.password = password;
+        this.commandHandler = commandHandler;
+        Thread acceptThread = new Thread(this::acceptLoop, "fake-rcon-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public int getCommandCount() {
+        return commandCount.get();
+    }
+
+    /**
+     * Number of reads that did not hold exactly one packet, each of which dropped
+     * its connection
+     */
+    public int getRejectedReadCount() {
+        return rejectedReadCount.get();
+    }
+
+    /**
+     * Delay the reply to every login by this long, like a server that is slow to accept
+     * connections while starting up
+     */
+    public void setAuthDelayMs(long authDelayMs) {
+        this.authDelayMs = authDelayMs;
+    }
+
+    /**
+     * Drop every open client connection, as happens when the Minecraft server restarts
+     */
+    public void disconnectClients() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+        clients.clear();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                clients.add(client);
+                connectionCount.incrementAndGet();
+                Thread clientThread = new Thread(() -> serve(client), "fake-rcon-client");
+                clientThread.setDaemon(true);
+                clientThread.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client) {
+            InputStream in = client.getInputStream();
+            OutputStream out = client.getOutputStream();
+            byte[] packet = new byte[READ_BUFFER_SIZE];
+            boolean authenticated = false;
+            while (true) {
+                int read = in.read(packet, 0, packet.length);
+                if (read < 0) {
+                    return;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(packet, 0, read).order(ByteOrder.LITTLE_ENDIAN);
+                if (read < 14 || buffer.getInt() != read - 4) {
+                    // Like vanilla, a read holding a partial packet or several packets ends the session
+                    rejectedReadCount.incrementAndGet();
+                    return;
+                }
+                int id = buffer.getInt();
+                int type = buffer.getInt();
+                String payload = new String(packet, 12, read - 14, StandardCharsets.UTF_8);
+
+                if (type == 3) {
+                    delayAuth();
+                    authenticated = password.equals(payload);
+                    writePacket(out, authenticated ? id : -1, 2, "");
+                } else if (type == 2 && authenticated) {
+                    commandCount.incrementAndGet();
+                    writeResponse(out, id, commandHandler.apply(payload));
+                } else {
+                    writePacket(out, id, 0, "Unknown request " + Integer.toHexString(type));
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private void delayAuth() {
+        if (authDelayMs > 0) {
+            try {
+                Thread.sleep(authDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeResponse(OutputStream out, int id, String response) throws IOException {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        do {
+            int length = Math.min(MAX_FRAGMENT_SIZE, bytes.length - offset);
+            writePacket(out, id, 0, bytes, offset, length);
+            offset += length;
+        } while (offset < bytes.length);
+    }
+
+    private void writePacket(OutputStream out, int id, int type, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        writePacket(out, id, type, bytes, 0, bytes.length);
+    }
+
+    private void writePacket(OutputStream out, int id, int type, byte[] payload, int offset, int length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length + 14).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(length + 10);
+        buffer.putInt(id);
+        buffer.putInt(type);
+        buffer.put(payload, offset, length);
+        buffer.put((byte) 0);
+        buffer.put((byte) 0);
+        synchronized (out) {
+            out.write(buffer.array());
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        disconnectClients();
+    }
+}
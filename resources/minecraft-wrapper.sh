@@ -47,7 +47,7 @@ send_alert() {
         
         if [ "$curl_output" = "CURL_FAILED" ]; then
             log "Alert failed: curl command failed (connection error or timeout)"
-        elif [ "$http_code" = "200" ] || [ "$http_code" = "201" ]; then
+        elif [ "$http_code" = "200" ] || [ "$http_code" = "201" ] || [ "$http_code" = "202" ]; then
             log "Alert sent successfully (HTTP $http_code)"
         else
             log "Alert failed: HTTP $http_code"
@@ -87,7 +87,7 @@ send_message() {
         
         if [ "$curl_output" = "CURL_FAILED" ]; then
             log "Message failed: curl command failed (connection error or timeout)"
-        elif [ "$http_code" = "200" ] || [ "$http_code" = "201" ]; then
+        elif [ "$http_code" = "200" ] || [ "$http_code" = "201" ] || [ "$http_code" = "202" ]; then
             log "Message sent successfully (HTTP $http_code)"
         else
             log "Message failed: HTTP $http_code"
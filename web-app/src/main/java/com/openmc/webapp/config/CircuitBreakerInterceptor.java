@@ -0,0 +1,96 @@
+package com.openmc.webapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a backend after repeated failures. Once the number of consecutive
+ * failures (I/O errors or 5xx responses) reaches the threshold the circuit opens and
+ * calls fail immediately for the open period. After that a single trial call is let
+ * through: if it succeeds the circuit closes, otherwise it opens again.
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerInterceptor.class);
+    
+    private final int failureThreshold;
+    private final long openMs;
+    private final LongSupplier clock;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialInFlight;
+    
+    public CircuitBreakerInterceptor(int failureThreshold, long openMs) {
+        this(failureThreshold, openMs, System::currentTimeMillis);
+    }
+    
+    CircuitBreakerInterceptor(int failureThreshold, long openMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clock = clock;
+    }
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!allowRequest()) {
+            throw new IOException("Circuit open for " + request.getURI().getHost() + ", not calling it");
+        }
+        
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            recordFailure(request);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            recordFailure(request);
+        } else {
+            recordSuccess();
+        }
+        return response;
+    }
+    
+    public synchronized boolean isOpen() {
+        return consecutiveFailures >= failureThreshold;
+    }
+    
+    private synchronized boolean allowRequest() {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        if (clock.getAsLong() < openUntil || trialInFlight) {
+            return false;
+        }
+        trialInFlight = true;
+        return true;
+    }
+    
+    private synchronized void recordSuccess() {
+        if (consecutiveFailures >= failureThreshold) {
+            logger.info("Circuit closed after a successful trial call");
+        }
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+    
+    private synchronized void recordFailure(HttpRequest request) {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (consecutiveFailures >= failureThreshold) {
+            openUntil = clock.getAsLong() + openMs;
+            if (consecutiveFailures == failureThreshold) {
+                logger.warn("Circuit opened for {} after {} consecutive failures",
+                            request.getURI().getHost(), consecutiveFailures);
+            }
+        }
+    }
+}
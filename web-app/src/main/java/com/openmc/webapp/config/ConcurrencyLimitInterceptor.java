@@ -0,0 +1,101 @@
+package com.openmc.webapp.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of requests in flight to a backend, and so the number of
+ * connections the client opens to it. A call waits up to the acquire timeout for a
+ * free slot and then fails rather than queueing behind a slow backend.
+ * <p>
+ * The slot is held until the response is closed, so a body that is streamed, such
+ * as the leaderboard, counts against the limit until it has been read. RestTemplate
+ * closes the response once its extractor is done with it.
+ */
+public class ConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+    
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    
+    public ConcurrencyLimitInterceptor(int maxConcurrentRequests, long acquireTimeoutMs) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many concurrent requests to " + request.getURI().getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection slot");
+        }
+        
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return new PermitReleasingResponse(response);
+    }
+    
+    /**
+     * Gives the slot back when the response is closed
+     */
+    private final class PermitReleasingResponse implements ClientHttpResponse {
+        
+        private final ClientHttpResponse response;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        PermitReleasingResponse(ClientHttpResponse response) {
+            this.response = response;
+        }
+        
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+        
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+        
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+        
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
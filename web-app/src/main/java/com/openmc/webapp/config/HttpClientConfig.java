@@ -0,0 +1,42 @@
+package com.openmc.webapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Configuration for HTTP clients
+ */
+@Configuration
+public class HttpClientConfig {
+    
+    /**
+     * RestTemplate for the Activity Tracker plugin API. The JDK client keeps HTTP/1.1
+     * connections alive and reuses them between calls. Connect and read timeouts bound
+     * how long a dashboard request can wait on the plugin. A concurrency limit and a
+     * circuit breaker stop a slow or failing plugin from tying up request threads.
+     */
+    @Bean
+    public RestTemplate activityTrackerRestTemplate(ServerConfig serverConfig) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(serverConfig.getActivityTrackerConnectTimeoutMs()))
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofMillis(serverConfig.getActivityTrackerReadTimeoutMs()));
+        
+        RestTemplate restTemplate = new RestTemplate(factory);
+        // Breaker first, so calls rejected while it is open do not take a connection slot
+        restTemplate.getInterceptors().add(new CircuitBreakerInterceptor(
+                serverConfig.getActivityTrackerCircuitFailureThreshold(),
+                serverConfig.getActivityTrackerCircuitOpenMs()));
+        restTemplate.getInterceptors().add(new ConcurrencyLimitInterceptor(
+                serverConfig.getActivityTrackerMaxConnections(),
+                serverConfig.getActivityTrackerConnectTimeoutMs()));
+        return restTemplate;
+    }
+}
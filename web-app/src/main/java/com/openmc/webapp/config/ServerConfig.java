@@ -17,8 +17,27 @@ public class ServerConfig {
     private String adminUsername = "admin";
     private String adminPassword = "admin";
     private long refreshIntervalMs = 1800000; // Default: 30 minutes
+    private boolean staleWhileRevalidate = false;
+    private long maxStalenessMs = 3600000; // Default: 1 hour
+    private long historyMinuteRetentionMs = 259200000; // Default: 3 days
+    private long historyFiveMinuteRetentionMs = 1209600000; // Default: 14 days
+    private long historyHourRetentionMs = 7776000000L; // Default: 90 days
+    private String historyStorePath = ""; // Empty keeps history in memory only
+    private int rconPoolSize = 2;
+    private long rconPoolIdleTimeoutMs = 300000; // Default: 5 minutes
+    private long rconPoolBorrowTimeoutMs = 5000;
+    private long rconProbeDeadlineMs = 5000;
     private String activityTrackerUrl = "";
     private boolean activityTrackerEnabled = false;
+    private long activityTrackerStatsTtlMs = 60000; // Default: 1 minute
+    private long activityTrackerLeaderboardTtlMs = 300000; // Default: 5 minutes
+    private int activityTrackerLeaderboardMaxEntries = 100000;
+    private long activityTrackerMaxStaleMs = 3600000; // Default: 1 hour
+    private long activityTrackerConnectTimeoutMs = 2000;
+    private long activityTrackerReadTimeoutMs = 5000;
+    private int activityTrackerMaxConnections = 4;
+    private int activityTrackerCircuitFailureThreshold = 5;
+    private long activityTrackerCircuitOpenMs = 30000; // Default: 30 seconds
     private String dashboardTitle = "Minecraft Server Dashboard";
     private String dashboardSubtitle = "Server Management & Information";
     private String dashboardPrimaryColor = "#667eea";
@@ -105,6 +124,86 @@ public class ServerConfig {
         this.refreshIntervalMs = refreshIntervalMs;
     }
     
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+    
+    public void setStaleWhileRevalidate(boolean staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+    
+    public long getMaxStalenessMs() {
+        return maxStalenessMs;
+    }
+    
+    public void setMaxStalenessMs(long maxStalenessMs) {
+        this.maxStalenessMs = maxStalenessMs;
+    }
+    
+    public long getHistoryMinuteRetentionMs() {
+        return historyMinuteRetentionMs;
+    }
+    
+    public void setHistoryMinuteRetentionMs(long historyMinuteRetentionMs) {
+        this.historyMinuteRetentionMs = historyMinuteRetentionMs;
+    }
+    
+    public long getHistoryFiveMinuteRetentionMs() {
+        return historyFiveMinuteRetentionMs;
+    }
+    
+    public void setHistoryFiveMinuteRetentionMs(long historyFiveMinuteRetentionMs) {
+        this.historyFiveMinuteRetentionMs = historyFiveMinuteRetentionMs;
+    }
+    
+    public long getHistoryHourRetentionMs() {
+        return historyHourRetentionMs;
+    }
+    
+    public void setHistoryHourRetentionMs(long historyHourRetentionMs) {
+        this.historyHourRetentionMs = historyHourRetentionMs;
+    }
+    
+    public String getHistoryStorePath() {
+        return historyStorePath;
+    }
+    
+    public void setHistoryStorePath(String historyStorePath) {
+        this.historyStorePath = historyStorePath;
+    }
+    
+    public int getRconPoolSize() {
+        return rconPoolSize;
+    }
+    
+    public void setRconPoolSize(int rconPoolSize) {
+        this.rconPoolSize = rconPoolSize;
+    }
+    
+    public long getRconPoolIdleTimeoutMs() {
+        return rconPoolIdleTimeoutMs;
+    }
+    
+    public void setRconPoolIdleTimeoutMs(long rconPoolIdleTimeoutMs) {
+        this.rconPoolIdleTimeoutMs = rconPoolIdleTimeoutMs;
+    }
+    
+    public long getRconPoolBorrowTimeoutMs() {
+        return rconPoolBorrowTimeoutMs;
+    }
+    
+    public void setRconPoolBorrowTimeoutMs(long rconPoolBorrowTimeoutMs) {
+        this.rconPoolBorrowTimeoutMs = rconPoolBorrowTimeoutMs;
+    }
+    
+    public long getRconProbeDeadlineMs() {
+        return rconProbeDeadlineMs;
+    }
+    
+    public void setRconProbeDeadlineMs(long rconProbeDeadlineMs) {
+        this.rconProbeDeadlineMs = rconProbeDeadlineMs;
+    }
+    
     public String getActivityTrackerUrl() {
         return activityTrackerUrl;
     }
@@ -121,6 +220,78 @@ public class ServerConfig {
         this.activityTrackerEnabled = activityTrackerEnabled;
     }
     
+    public long getActivityTrackerStatsTtlMs() {
+        return activityTrackerStatsTtlMs;
+    }
+    
+    public void setActivityTrackerStatsTtlMs(long activityTrackerStatsTtlMs) {
+        this.activityTrackerStatsTtlMs = activityTrackerStatsTtlMs;
+    }
+    
+    public long getActivityTrackerLeaderboardTtlMs() {
+        return activityTrackerLeaderboardTtlMs;
+    }
+    
+    public void setActivityTrackerLeaderboardTtlMs(long activityTrackerLeaderboardTtlMs) {
+        this.activityTrackerLeaderboardTtlMs = activityTrackerLeaderboardTtlMs;
+    }
+    
+    public int getActivityTrackerLeaderboardMaxEntries() {
+        return activityTrackerLeaderboardMaxEntries;
+    }
+    
+    public void setActivityTrackerLeaderboardMaxEntries(int activityTrackerLeaderboardMaxEntries) {
+        this.activityTrackerLeaderboardMaxEntries = activityTrackerLeaderboardMaxEntries;
+    }
+    
+    public long getActivityTrackerMaxStaleMs() {
+        return activityTrackerMaxStaleMs;
+    }
+    
+    public void setActivityTrackerMaxStaleMs(long activityTrackerMaxStaleMs) {
+        this.activityTrackerMaxStaleMs = activityTrackerMaxStaleMs;
+    }
+    
+    public long getActivityTrackerConnectTimeoutMs() {
+        return activityTrackerConnectTimeoutMs;
+    }
+    
+    public void setActivityTrackerConnectTimeoutMs(long activityTrackerConnectTimeoutMs) {
+        this.activityTrackerConnectTimeoutMs = activityTrackerConnectTimeoutMs;
+    }
+    
+    public long getActivityTrackerReadTimeoutMs() {
+        return activityTrackerReadTimeoutMs;
+    }
+    
+    public void setActivityTrackerReadTimeoutMs(long activityTrackerReadTimeoutMs) {
+        this.activityTrackerReadTimeoutMs = activityTrackerReadTimeoutMs;
+    }
+    
+    public int getActivityTrackerMaxConnections() {
+        return activityTrackerMaxConnections;
+    }
+    
+    public void setActivityTrackerMaxConnections(int activityTrackerMaxConnections) {
+        this.activityTrackerMaxConnections = activityTrackerMaxConnections;
+    }
+    
+    public int getActivityTrackerCircuitFailureThreshold() {
+        return activityTrackerCircuitFailureThreshold;
+    }
+    
+    public void setActivityTrackerCircuitFailureThreshold(int activityTrackerCircuitFailureThreshold) {
+        this.activityTrackerCircuitFailureThreshold = activityTrackerCircuitFailureThreshold;
+    }
+    
+    public long getActivityTrackerCircuitOpenMs() {
+        return activityTrackerCircuitOpenMs;
+    }
+    
+    public void setActivityTrackerCircuitOpenMs(long activityTrackerCircuitOpenMs) {
+        this.activityTrackerCircuitOpenMs = activityTrackerCircuitOpenMs;
+    }
+    
     public String getDashboardTitle() {
         return dashboardTitle;
     }
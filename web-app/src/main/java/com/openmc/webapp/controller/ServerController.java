@@ -4,13 +4,21 @@ import com.openmc.webapp.config.ServerConfig;
 import com.openmc.webapp.model.ActivityTrackerStats;
 import com.openmc.webapp.model.LeaderboardEntry;
 import com.openmc.webapp.service.ActivityTrackerService;
+import com.openmc.webapp.service.LeaderboardIndex;
 import com.openmc.webapp.service.RconService;
+import com.openmc.webapp.service.StatusBroadcaster;
+import com.openmc.webapp.service.StatusHistory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -19,15 +27,21 @@ public class ServerController {
     
     private static final Logger logger = LoggerFactory.getLogger(ServerController.class);
     
+    private static final int MAX_LEADERBOARD_PAGE_SIZE = 100;
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    
     private final RconService rconService;
     private final ServerConfig serverConfig;
     private final ActivityTrackerService activityTrackerService;
+    private final StatusBroadcaster statusBroadcaster;
     
     public ServerController(RconService rconService, ServerConfig serverConfig, 
-                          ActivityTrackerService activityTrackerService) {
+                          ActivityTrackerService activityTrackerService,
+                          StatusBroadcaster statusBroadcaster) {
         this.rconService = rconService;
         this.serverConfig = serverConfig;
         this.activityTrackerService = activityTrackerService;
+        this.statusBroadcaster = statusBroadcaster;
     }
     
     @GetMapping("/")
@@ -92,6 +106,15 @@ public class ServerController {
         return rconService.getServerStatus();
     }
     
+    /**
+     * Server-Sent Events stream that pushes the status whenever a new snapshot is fetched
+     */
+    @GetMapping(value = "/api/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamStatus() {
+        return statusBroadcaster.subscribe();
+    }
+    
     @GetMapping("/api/resources")
     @ResponseBody
     public RconService.ResourceUsage getResources() {
@@ -104,6 +127,27 @@ public class ServerController {
         return Map.of("history", rconService.getRetrievalHistory());
     }
     
+    /**
+     * Downsampled status history for trend graphs. Defaults to the last 24 hours at
+     * 5 minute resolution.
+     */
+    @GetMapping("/api/history/series")
+    @ResponseBody
+    public ResponseEntity<StatusHistory.Series> getHistorySeries(
+            @RequestParam(defaultValue = "5m") String resolution,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
+        StatusHistory.Resolution parsed;
+        try {
+            parsed = StatusHistory.Resolution.fromLabel(resolution);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant end = to != null ? Instant.ofEpochMilli(to) : Instant.now();
+        Instant start = from != null ? Instant.ofEpochMilli(from) : end.minus(Duration.ofHours(24));
+        return ResponseEntity.ok(rconService.getHistorySeries(parsed, start, end));
+    }
+    
     @GetMapping("/api/activity-tracker/stats")
     @ResponseBody
     public ActivityTrackerStats getActivityTrackerStats() {
@@ -115,15 +159,40 @@ public class ServerController {
         return stats;
     }
     
+    /**
+     * One page of the leaderboard, highest ranked first. The number of players on the
+     * leaderboard is returned in the X-Total-Count header.
+     */
     @GetMapping("/api/activity-tracker/leaderboard")
     @ResponseBody
-    public List<LeaderboardEntry> getActivityTrackerLeaderboard() {
-        logger.debug("API request: /api/activity-tracker/leaderboard");
-        List<LeaderboardEntry> leaderboard = activityTrackerService.getLeaderboard();
-        if (leaderboard.isEmpty()) {
+    public ResponseEntity<List<LeaderboardEntry>> getActivityTrackerLeaderboard(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.debug("API request: /api/activity-tracker/leaderboard?offset={}&limit={}", offset, limit);
+        if (offset < 0 || limit < 1 || limit > MAX_LEADERBOARD_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        LeaderboardIndex.Page page = activityTrackerService.getLeaderboardPage(offset, limit);
+        if (page.totalPlayers() == 0) {
             logger.warn("Activity Tracker leaderboard request returned empty - check if integration is enabled and API is accessible");
         }
-        return leaderboard;
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.totalPlayers()))
+                .body(page.entries());
+    }
+    
+    /**
+     * A single player's rank on the leaderboard, or 404 if they are not on it
+     */
+    @GetMapping("/api/activity-tracker/leaderboard/{playerUuid}")
+    @ResponseBody
+    public ResponseEntity<LeaderboardIndex.PlayerRank> getActivityTrackerPlayerRank(@PathVariable String playerUuid) {
+        logger.debug("API request: /api/activity-tracker/leaderboard/{}", playerUuid);
+        LeaderboardIndex.PlayerRank rank = activityTrackerService.getPlayerRank(playerUuid);
+        if (rank == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(rank);
     }
     
     @GetMapping("/api/activity-tracker/enabled")
@@ -3,29 +3,41 @@ package com.openmc.webapp.service;
 import com.openmc.webapp.config.ServerConfig;
 import com.openmc.webapp.model.ActivityTrackerStats;
 import com.openmc.webapp.model.LeaderboardEntry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 /**
- * Service for fetching data from the Activity Tracker plugin API
+ * Service for fetching data from the Activity Tracker plugin API. The plugin runs
+ * inside the game server, so stats are cached for a configurable TTL and the
+ * leaderboard is kept in a local index that is synced from the plugin at most once
+ * per TTL. Dashboard loads do not each cost server tick time.
  */
 @Service
 public class ActivityTrackerService {
     
     private static final Logger logger = LoggerFactory.getLogger(ActivityTrackerService.class);
     
+    private static final long SYNC_OVERLAP_MS = 60000;
+    
     private final ServerConfig serverConfig;
     private final RestTemplate restTemplate;
+    private final TtlCache<ActivityTrackerStats> statsCache = new TtlCache<>();
+    private final TtlCache<Integer> leaderboardSync = new TtlCache<>();
+    private final LeaderboardParser leaderboardParser = new LeaderboardParser();
+    private final LeaderboardIndex leaderboardIndex;
+    // Start of the last successful sync; only touched by syncs, which the cache runs one at a time
+    private long lastLeaderboardSyncMs = -1;
     
-    public ActivityTrackerService(ServerConfig serverConfig) {
+    public ActivityTrackerService(ServerConfig serverConfig, RestTemplate activityTrackerRestTemplate) {
         this.serverConfig = serverConfig;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = activityTrackerRestTemplate;
+        this.leaderboardIndex = new LeaderboardIndex(serverConfig.getActivityTrackerLeaderboardMaxEntries());
         logConfiguration();
     }
     
@@ -56,7 +68,8 @@ public class ActivityTrackerService {
     }
     
     /**
-     * Fetch server statistics from Activity Tracker
+     * Server statistics from Activity Tracker, cached for the stats TTL. If the API
+     * fails the last stats are returned for up to the max staleness.
      */
     public ActivityTrackerStats getStats() {
         if (!isEnabled()) {
@@ -65,16 +78,8 @@ public class ActivityTrackerService {
         }
         
         try {
-            String url = buildUrl("/api/stats");
-            logger.debug("Fetching Activity Tracker stats from: {}", url);
-            ActivityTrackerStats stats = restTemplate.getForObject(url, ActivityTrackerStats.class);
-            if (stats != null) {
-                logger.info("Successfully fetched Activity Tracker stats: {} unique logins, {} total logins", 
-                    stats.getUniqueLogins(), stats.getTotalLogins());
-            } else {
-                logger.warn("Activity Tracker stats response was null");
-            }
-            return stats;
+            return statsCache.get(serverConfig.getActivityTrackerStatsTtlMs(),
+                                  serverConfig.getActivityTrackerMaxStaleMs(), this::fetchStats);
         } catch (Exception e) {
             logger.error("Error fetching Activity Tracker stats from {}: {} - {}", 
                 buildUrl("/api/stats"), e.getClass().getSimpleName(), e.getMessage());
@@ -86,29 +91,26 @@ public class ActivityTrackerService {
     }
     
     /**
-     * Fetch leaderboard from Activity Tracker
+     * One page of the leaderboard, highest ranked first, and the number of players on
+     * it. Served from the local index, which is synced first if the leaderboard TTL has
+     * passed; if the API fails the index is served as is for up to the max staleness.
      */
-    public List<LeaderboardEntry> getLeaderboard() {
-        if (!isEnabled()) {
-            logger.debug("Activity Tracker is not enabled, skipping leaderboard fetch");
-            return Collections.emptyList();
+    public LeaderboardIndex.Page getLeaderboardPage(int offset, int limit) {
+        if (!syncLeaderboard()) {
+            return LeaderboardIndex.Page.empty(offset);
         }
-        
-        try {
-            String url = buildUrl("/api/leaderboard");
-            logger.debug("Fetching Activity Tracker leaderboard from: {}", url);
-            LeaderboardEntry[] entries = restTemplate.getForObject(url, LeaderboardEntry[].class);
-            List<LeaderboardEntry> leaderboard = entries != null ? Arrays.asList(entries) : Collections.emptyList();
-            logger.info("Successfully fetched Activity Tracker leaderboard with {} entries", leaderboard.size());
-            return leaderboard;
-        } catch (Exception e) {
-            logger.error("Error fetching Activity Tracker leaderboard from {}: {} - {}", 
-                buildUrl("/api/leaderboard"), e.getClass().getSimpleName(), e.getMessage());
-            if (logger.isDebugEnabled()) {
-                logger.debug("Stack trace:", e);
-            }
-            return Collections.emptyList();
+        return leaderboardIndex.page(offset, limit);
+    }
+    
+    /**
+     * A player's rank on the leaderboard, or null if they are not on it. Served from
+     * the local index like {@link #getLeaderboardPage}.
+     */
+    public LeaderboardIndex.PlayerRank getPlayerRank(String playerUuid) {
+        if (!syncLeaderboard()) {
+            return null;
         }
+        return leaderboardIndex.rankOf(playerUuid);
     }
     
     /**
@@ -133,6 +135,68 @@ public class ActivityTrackerService {
         }
     }
     
+    private ActivityTrackerStats fetchStats() {
+        String url = buildUrl("/api/stats");
+        logger.debug("Fetching Activity Tracker stats from: {}", url);
+        ActivityTrackerStats stats = restTemplate.getForObject(url, ActivityTrackerStats.class);
+        if (stats != null) {
+            logger.info("Successfully fetched Activity Tracker stats: {} unique logins, {} total logins", 
+                stats.getUniqueLogins(), stats.getTotalLogins());
+        } else {
+            logger.warn("Activity Tracker stats response was null");
+        }
+        return stats;
+    }
+    
+    /**
+     * Sync the index if the leaderboard TTL has passed
+     *
+     * @return false if the integration is disabled or the index is too stale to serve
+     */
+    private boolean syncLeaderboard() {
+        if (!isEnabled()) {
+            logger.debug("Activity Tracker is not enabled, skipping leaderboard fetch");
+            return false;
+        }
+        
+        try {
+            leaderboardSync.get(serverConfig.getActivityTrackerLeaderboardTtlMs(),
+                                serverConfig.getActivityTrackerMaxStaleMs(), this::fetchLeaderboardChanges);
+            return true;
+        } catch (Exception e) {
+            logger.error("Error fetching Activity Tracker leaderboard from {}: {} - {}", 
+                buildUrl("/api/leaderboard"), e.getClass().getSimpleName(), e.getMessage());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Stack trace:", e);
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Fetch the entries that changed since the last sync and apply them to the index.
+     * The first sync fetches the whole leaderboard. The window overlaps the previous
+     * one to allow for clock skew with the game server; re-applying an unchanged entry
+     * is a no-op. A plugin that ignores since returns the whole leaderboard, which is
+     * applied the same way. The body is parsed as it streams in, and the request keeps
+     * its connection slot until the body has been read and the response closed.
+     */
+    private Integer fetchLeaderboardChanges() {
+        long syncStart = System.currentTimeMillis();
+        String url = buildUrl("/api/leaderboard");
+        if (lastLeaderboardSyncMs >= 0) {
+            url += "?since=" + Math.max(0, lastLeaderboardSyncMs - SYNC_OVERLAP_MS);
+        }
+        logger.debug("Fetching Activity Tracker leaderboard changes from: {}", url);
+        Integer changed = restTemplate.execute(url, HttpMethod.GET,
+            request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+            response -> leaderboardParser.parse(response.getBody(), leaderboardIndex::upsert));
+        lastLeaderboardSyncMs = syncStart;
+        logger.info("Synced Activity Tracker leaderboard: {} entries received, {} players indexed",
+            changed, leaderboardIndex.size());
+        return leaderboardIndex.size();
+    }
+    
     private String buildUrl(String path) {
         String baseUrl = serverConfig.getActivityTrackerUrl().trim();
         // Remove trailing slash if present
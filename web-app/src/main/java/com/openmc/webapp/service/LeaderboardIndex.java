@@ -0,0 +1,277 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.model.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local sorted copy of the Activity Tracker leaderboard, kept up to date from the
+ * entries that changed since the last sync. Players are held in a treap ordered by
+ * rank, with subtree sizes, and in a map by UUID, so updating a player, looking up a
+ * player's rank and reading a page of the ranking are all O(log n).
+ * <p>
+ * The index holds at most maxEntries players; beyond that the lowest ranked player is
+ * dropped. Hours played only grow, so a dropped player comes back through the deltas
+ * once they climb high enough.
+ */
+public class LeaderboardIndex {
+    
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsLast(String::compareTo);
+    
+    private final int maxEntries;
+    private final Map<String, Node> nodesByKey = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom priorities = new SplittableRandom();
+    private Node root;
+    
+    /**
+     * A page of the ranking, highest ranked first, and the number of indexed players
+     */
+    public record Page(List<LeaderboardEntry> entries, int offset, int totalPlayers) {
+        
+        public static Page empty(int offset) {
+            return new Page(List.of(), offset, 0);
+        }
+    }
+    
+    /**
+     * A player's 1-based position on the leaderboard
+     */
+    public record PlayerRank(int rank, LeaderboardEntry entry, int totalPlayers) {
+    }
+    
+    public LeaderboardIndex(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+    
+    /**
+     * Add a player or replace their previous entry. Entries are keyed by UUID, or by
+     * name for entries without one; entries with neither are ignored.
+     */
+    public void upsert(LeaderboardEntry entry) {
+        String key = entry.getPlayerUuid() != null ? entry.getPlayerUuid() : entry.getPlayerName();
+        if (key == null) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            Node existing = nodesByKey.get(key);
+            if (existing != null) {
+                if (existing.hasSameValues(entry)) {
+                    return;
+                }
+                root = remove(root, existing);
+            }
+            Node node = new Node(key, entry, priorities.nextInt());
+            root = insert(root, node);
+            nodesByKey.put(key, node);
+            
+            if (nodesByKey.size() > maxEntries) {
+                Node lowest = root;
+                while (lowest.right != null) {
+                    lowest = lowest.right;
+                }
+                root = remove(root, lowest);
+                nodesByKey.remove(lowest.key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodesByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Players ranked offset + 1 to offset + limit, or fewer at the end
+     */
+    public Page page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - offset)));
+            collect(root, offset, limit, entries);
+            return new Page(entries, offset, nodesByKey.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * The rank of the player with the given UUID, or null if they are not indexed
+     */
+    public PlayerRank rankOf(String playerUuid) {
+        lock.readLock().lock();
+        try {
+            Node target = nodesByKey.get(playerUuid);
+            if (target == null) {
+                return null;
+            }
+            int before = 0;
+            Node node = root;
+            while (node != target) {
+                if (compare(target, node) < 0) {
+                    node = node.left;
+                } else {
+                    before += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return new PlayerRank(before + size(node.left) + 1, target.toEntry(), nodesByKey.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // In-order walk that skips whole subtrees before the offset
+    private static void collect(Node node, int skip, int limit, List<LeaderboardEntry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (skip < leftSize) {
+            collect(node.left, skip, limit, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (skip <= leftSize) {
+            out.add(node.toEntry());
+        }
+        collect(node.right, Math.max(0, skip - leftSize - 1), limit, out);
+    }
+    
+    private Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            inserted.updateSize();
+            return inserted;
+        }
+        if (compare(inserted, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        node.updateSize();
+        return node;
+    }
+    
+    private Node remove(Node node, Node removed) {
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (compare(removed, node) < 0) {
+            node.left = remove(node.left, removed);
+        } else {
+            node.right = remove(node.right, removed);
+        }
+        node.updateSize();
+        return node;
+    }
+    
+    // Splits into the nodes ranked above pivot and the rest
+    private Node[] split(Node node, Node pivot) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node, pivot) < 0) {
+            Node[] parts = split(node.right, pivot);
+            node.right = parts[0];
+            node.updateSize();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, pivot);
+        node.left = parts[1];
+        node.updateSize();
+        return new Node[] {parts[0], node};
+    }
+    
+    // Every node of higher is ranked above every node of lower
+    private Node merge(Node higher, Node lower) {
+        if (higher == null) {
+            return lower;
+        }
+        if (lower == null) {
+            return higher;
+        }
+        if (higher.priority > lower.priority) {
+            higher.right = merge(higher.right, lower);
+            higher.updateSize();
+            return higher;
+        }
+        lower.left = merge(higher, lower.left);
+        lower.updateSize();
+        return lower;
+    }
+    
+    /**
+     * Negative if a ranks above b: most hours played, then most logins, then by name
+     * with unnamed players last, and by key so that no two players compare equal
+     */
+    private static int compare(Node a, Node b) {
+        int result = Double.compare(b.hoursPlayed, a.hoursPlayed);
+        if (result == 0) {
+            result = Integer.compare(b.totalLogins, a.totalLogins);
+        }
+        if (result == 0) {
+            result = NAME_ORDER.compare(a.playerName, b.playerName);
+        }
+        return result != 0 ? result : a.key.compareTo(b.key);
+    }
+    
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    private static final class Node {
+        private final String key;
+        private final String playerUuid;
+        private final String playerName;
+        private final double hoursPlayed;
+        private final int totalLogins;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+        
+        Node(String key, LeaderboardEntry entry, int priority) {
+            this.key = key;
+            this.playerUuid = entry.getPlayerUuid();
+            this.playerName = entry.getPlayerName();
+            this.hoursPlayed = entry.getHoursPlayed();
+            this.totalLogins = entry.getTotalLogins();
+            this.priority = priority;
+        }
+        
+        void updateSize() {
+            size = 1 + LeaderboardIndex.size(left) + LeaderboardIndex.size(right);
+        }
+        
+        boolean hasSameValues(LeaderboardEntry entry) {
+            return hoursPlayed == entry.getHoursPlayed() && totalLogins == entry.getTotalLogins()
+                && Objects.equals(playerName, entry.getPlayerName());
+        }
+        
+        LeaderboardEntry toEntry() {
+            return new LeaderboardEntry(playerUuid, playerName, hoursPlayed, totalLogins);
+        }
+    }
+}
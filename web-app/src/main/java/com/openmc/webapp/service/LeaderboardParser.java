@@ -0,0 +1,58 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.openmc.webapp.model.LeaderboardEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser for the Activity Tracker leaderboard. Entries are read one at a
+ * time from the response and handed to a consumer, so the response is never held in
+ * memory as a whole.
+ */
+public class LeaderboardParser {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    /**
+     * Read a JSON array of leaderboard entries, passing each one to the consumer
+     *
+     * @return the number of entries read
+     */
+    public int parse(InputStream json, Consumer<LeaderboardEntry> consumer) throws IOException {
+        int count = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of leaderboard entries");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(readEntry(parser));
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private static LeaderboardEntry readEntry(JsonParser parser) throws IOException {
+        LeaderboardEntry entry = new LeaderboardEntry();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "playerUuid" -> entry.setPlayerUuid(parser.getValueAsString());
+                case "playerName" -> entry.setPlayerName(parser.getValueAsString());
+                case "hoursPlayed" -> entry.setHoursPlayed(parser.getValueAsDouble());
+                case "totalLogins" -> entry.setTotalLogins(parser.getValueAsInt());
+                default -> parser.skipChildren();
+            }
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,277 @@
+package com.openmc.webapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass parser for the output of the {@code list}, {@code tps} and
+ * {@code forge tps} commands on vanilla, Paper/Spigot and Forge servers. Color codes
+ * ({@code §} followed by one character) are skipped while scanning and numbers are
+ * read straight from the response into primitives, so no cleaned copies, regexes or
+ * substrings are created along the way.
+ * <p>
+ * Each method returns null when the response does not contain what it looks for.
+ */
+public class RconResponseParser {
+    
+    private static final char COLOR_CODE = '§';
+    private static final String PLAYERS_MARKER = "There are";
+    private static final String TPS_MARKER = "TPS";
+    private static final String TICK_TIME_MARKER = "Mean tick time:";
+    private static final String MEAN_TPS_MARKER = "Mean TPS:";
+    private static final String OVERALL = "Overall";
+    private static final long KIB = 1024L;
+    private static final long MIB = KIB * 1024;
+    private static final long GIB = MIB * 1024;
+    
+    public record PlayerCount(int online, int max) {
+    }
+    
+    /**
+     * TPS averaged over the last 1, 5 and 15 minutes; NaN where the server reports fewer
+     */
+    public record Tps(double oneMinute, double fiveMinutes, double fifteenMinutes) {
+    }
+    
+    public record Memory(long usedBytes, long maxBytes) {
+    }
+    
+    public record DimensionTick(String dimension, double meanTickMs, double meanTps) {
+    }
+    
+    /**
+     * Forge tick statistics; the overall values are NaN if the server did not report them
+     */
+    public record ForgeTps(double meanTickMs, double meanTps, List<DimensionTick> dimensions) {
+    }
+    
+    /**
+     * Parse "There are 3 of a max of 20 players online: ..." (vanilla, Paper) or
+     * "There are 3/20 players online:" (older Bukkit)
+     */
+    public PlayerCount parseList(String response) {
+        if (response == null) {
+            return null;
+        }
+        int start = response.indexOf(PLAYERS_MARKER);
+        if (start < 0) {
+            return null;
+        }
+        Cursor cursor = new Cursor(response, start + PLAYERS_MARKER.length(), response.length());
+        if (!cursor.nextNumber()) {
+            return null;
+        }
+        int online = (int) cursor.value;
+        int max = cursor.nextNumber() ? (int) cursor.value : -1;
+        return new PlayerCount(online, max);
+    }
+    
+    /**
+     * Parse the Paper/Spigot "TPS from last 1m, 5m, 15m: 20.0, 20.0, 20.0" line. Values
+     * may be colored and prefixed with '*' when capped.
+     */
+    public Tps parseTps(String response) {
+        if (response == null) {
+            return null;
+        }
+        int marker = response.indexOf(TPS_MARKER);
+        int colon = marker < 0 ? -1 : response.indexOf(':', marker);
+        if (colon < 0) {
+            return null;
+        }
+        int end = response.indexOf('\n', colon);
+        Cursor cursor = new Cursor(response, colon + 1, end < 0 ? response.length() : end);
+        double[] values = {Double.NaN, Double.NaN, Double.NaN};
+        int count = 0;
+        while (count < values.length && cursor.nextNumber()) {
+            values[count++] = cursor.value;
+        }
+        return count == 0 ? null : new Tps(values[0], values[1], values[2]);
+    }
+    
+    /**
+     * Find the first "used/max unit" pair, as in "Memory: 1024MB/2048MB",
+     * "Current Memory Usage: 401/2048 mb (Max: 3072 mb)" or "1.5/4 G"
+     */
+    public Memory parseMemory(String response) {
+        if (response == null) {
+            return null;
+        }
+        Cursor cursor = new Cursor(response, 0, response.length());
+        while (cursor.nextNumber()) {
+            double used = cursor.value;
+            long usedUnit = cursor.unit();
+            int afterUsed = cursor.position;
+            if (cursor.skipSpaces() && cursor.peek() == '/' && cursor.advance() && cursor.skipSpaces()
+                    && Character.isDigit(cursor.peek()) && cursor.nextNumber()) {
+                long maxUnit = cursor.unit();
+                if (maxUnit > 0) {
+                    // "1024MB/2048MB" carries a unit on both sides, "401/2048 mb" only on the max
+                    long unit = usedUnit > 0 ? usedUnit : maxUnit;
+                    return new Memory((long) (used * unit), (long) (cursor.value * maxUnit));
+                }
+            }
+            cursor.position = afterUsed;
+        }
+        return null;
+    }
+    
+    /**
+     * Parse "forge tps" output: one "Mean tick time: x ms. Mean TPS: y" line per
+     * dimension plus an "Overall" line
+     */
+    public ForgeTps parseForgeTps(String response) {
+        if (response == null || !response.contains(TICK_TIME_MARKER)) {
+            return null;
+        }
+        double overallTick = Double.NaN;
+        double overallTps = Double.NaN;
+        List<DimensionTick> dimensions = new ArrayList<>();
+        int lineStart = 0;
+        while (lineStart < response.length()) {
+            int lineEnd = response.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = response.length();
+            }
+            int marker = response.indexOf(TICK_TIME_MARKER, lineStart);
+            if (marker >= 0 && marker < lineEnd) {
+                Cursor cursor = new Cursor(response, marker + TICK_TIME_MARKER.length(), lineEnd);
+                double tick = cursor.nextNumber() ? cursor.value : Double.NaN;
+                int tpsMarker = response.indexOf(MEAN_TPS_MARKER, marker);
+                double tps = Double.NaN;
+                if (tpsMarker >= 0 && tpsMarker < lineEnd) {
+                    cursor.position = tpsMarker + MEAN_TPS_MARKER.length();
+                    tps = cursor.nextNumber() ? cursor.value : Double.NaN;
+                }
+                String dimension = dimensionName(response, lineStart, marker);
+                if (dimension.startsWith(OVERALL)) {
+                    overallTick = tick;
+                    overallTps = tps;
+                } else {
+                    dimensions.add(new DimensionTick(dimension, tick, tps));
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new ForgeTps(overallTick, overallTps, List.copyOf(dimensions));
+    }
+    
+    // The text before the tick time marker without color codes and the trailing colon
+    private static String dimensionName(String response, int start, int end) {
+        StringBuilder name = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = response.charAt(i);
+            if (c == COLOR_CODE) {
+                i++;
+            } else {
+                name.append(c);
+            }
+        }
+        int length = name.length();
+        while (length > 0 && (Character.isWhitespace(name.charAt(length - 1)) || name.charAt(length - 1) == ':')) {
+            length--;
+        }
+        int begin = 0;
+        while (begin < length && Character.isWhitespace(name.charAt(begin))) {
+            begin++;
+        }
+        return name.substring(begin, length);
+    }
+    
+    /**
+     * Reads numbers from a region of a response, skipping color codes
+     */
+    private static final class Cursor {
+        private final String text;
+        private final int end;
+        private int position;
+        private double value;
+        
+        Cursor(String text, int position, int end) {
+            this.text = text;
+            this.position = position;
+            this.end = end;
+        }
+        
+        /**
+         * Advance to the next number and read it into value
+         */
+        boolean nextNumber() {
+            while (position < end) {
+                char c = text.charAt(position);
+                if (c == COLOR_CODE) {
+                    position += 2;
+                } else if (c >= '0' && c <= '9') {
+                    readNumber();
+                    return true;
+                } else {
+                    position++;
+                }
+            }
+            return false;
+        }
+        
+        private void readNumber() {
+            long whole = 0;
+            while (position < end && isDigit(text.charAt(position))) {
+                whole = whole * 10 + (text.charAt(position++) - '0');
+            }
+            double result = whole;
+            if (position + 1 < end && text.charAt(position) == '.' && isDigit(text.charAt(position + 1))) {
+                position++;
+                double scale = 0.1;
+                while (position < end && isDigit(text.charAt(position))) {
+                    result += (text.charAt(position++) - '0') * scale;
+                    scale /= 10;
+                }
+            }
+            value = result;
+        }
+        
+        /**
+         * Bytes per unit of a K/M/G suffix directly after the number (spaces allowed),
+         * or 0 if there is none. The cursor only moves past a recognised unit.
+         */
+        long unit() {
+            int start = position;
+            skipSpaces();
+            if (position < end) {
+                long unit = switch (text.charAt(position)) {
+                    case 'K', 'k' -> KIB;
+                    case 'M', 'm' -> MIB;
+                    case 'G', 'g' -> GIB;
+                    default -> 0;
+                };
+                if (unit > 0) {
+                    position++;
+                    if (position < end && (text.charAt(position) == 'B' || text.charAt(position) == 'b')) {
+                        position++;
+                    }
+                    return unit;
+                }
+            }
+            position = start;
+            return 0;
+        }
+        
+        boolean skipSpaces() {
+            while (position < end && text.charAt(position) == ' ') {
+                position++;
+            }
+            return true;
+        }
+        
+        char peek() {
+            return position < end ? text.charAt(position) : 0;
+        }
+        
+        boolean advance() {
+            position++;
+            return true;
+        }
+        
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+}
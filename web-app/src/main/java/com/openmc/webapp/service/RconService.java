@@ -1,74 +1,239 @@
 package com.openmc.webapp.service;
 
+import com.openmc.rcon.RconConnectionPool;
 import com.openmc.webapp.config.ServerConfig;
 import com.openmc.webapp.model.RetrievalRecord;
-import com.openmc.webapp.rcon.RconClient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class RconService {
     
+    private static final Logger logger = LoggerFactory.getLogger(RconService.class);
+    
     private static final int MAX_HISTORY_SIZE = 10;
+    private static final long BYTES_PER_MB = 1024L * 1024;
+    
+    // "forge tps" is sent speculatively: it runs alongside the others on another pooled
+    // connection and is only consulted when "tps" did not report memory
+    private static final List<String> STATUS_COMMANDS = List.of("list", "tps", "forge tps");
+    private static final List<String> RESOURCE_COMMANDS = List.of("tps", "forge tps");
+    private static final String TIMED_OUT_RESPONSE = "Error: Timed out waiting for server response";
+    // Lets responses that arrive right at the probe deadline be collected
+    private static final long DEADLINE_GRACE_MS = 250;
     
     private final ServerConfig serverConfig;
-    private ServerStatus cachedStatus;
-    private Instant lastFetchTime;
-    private final LinkedList<RetrievalRecord> retrievalHistory = new LinkedList<>();
+    private final RconResponseParser parser = new RconResponseParser();
+    private final RconConnectionPool connectionPool;
+    private final AtomicReference<StatusSnapshot> snapshot = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean backgroundRefreshQueued = new AtomicBoolean();
+    private final ExecutorService refreshExecutor;
+    // Ring of the most recent records, newest at recentHead
+    private final RetrievalRecord[] recentRecords = new RetrievalRecord[MAX_HISTORY_SIZE];
+    private int recentHead = -1;
+    private int recentCount;
+    private final StatusHistory statusHistory;
+    private final StatusHistoryStore historyStore;
+    private boolean persistedHistoryLoaded;
     
     public RconService(ServerConfig serverConfig) {
         this.serverConfig = serverConfig;
+        this.connectionPool = new RconConnectionPool(serverConfig.getHost(), serverConfig.getRconPort(),
+                                                     serverConfig.getRconPassword(), serverConfig.getRconPoolSize(),
+                                                     serverConfig.getRconPoolIdleTimeoutMs(),
+                                                     serverConfig.getRconPoolBorrowTimeoutMs());
+        this.statusHistory = new StatusHistory(serverConfig.getHistoryMinuteRetentionMs(),
+                                               serverConfig.getHistoryFiveMinuteRetentionMs(),
+                                               serverConfig.getHistoryHourRetentionMs());
+        this.historyStore = openHistoryStore(serverConfig);
+        this.refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rcon-status-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
     
     public String sendCommand(String command) {
-        try (RconClient rcon = new RconClient(serverConfig.getHost(), serverConfig.getRconPort(), 
-                                              serverConfig.getRconPassword())) {
-            return rcon.sendCommand(command);
+        try {
+            return connectionPool.execute(rcon -> rcon.sendCommand(command));
         } catch (IOException e) {
             return "Error: Unable to connect to server - " + e.getMessage();
         }
     }
     
+    /**
+     * Send several independent commands in parallel, each on its own pooled connection
+     * since a connection runs one command at a time, and wait no longer than the probe
+     * deadline. Each command gets its own response: a command still outstanding at the
+     * deadline is reported as an error while the responses that did arrive are kept.
+     */
+    public List<String> sendCommands(List<String> commands) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(serverConfig.getRconProbeDeadlineMs());
+        // completeOnTimeout completes the dependent stage only; the command keeps its
+        // connection until it is answered or times out in the client
+        List<CompletableFuture<String>> responses = commands.stream()
+            .map(command -> connectionPool.executeAsync(rcon -> rcon.sendCommandAsync(command)
+                    .exceptionallyCompose(RconService::timeoutAsMissing))
+                .completeOnTimeout(null, deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+            .toList();
+        
+        List<String> results = new ArrayList<>(commands.size());
+        for (CompletableFuture<String> response : responses) {
+            results.add(awaitResponse(response, deadline));
+        }
+        return results;
+    }
+    
+    private static String awaitResponse(CompletableFuture<String> response, long deadline) {
+        try {
+            long waitNanos = deadline - System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEADLINE_GRACE_MS);
+            String result = response.get(waitNanos, TimeUnit.NANOSECONDS);
+            return Objects.requireNonNullElse(result, TIMED_OUT_RESPONSE);
+        } catch (TimeoutException e) {
+            return TIMED_OUT_RESPONSE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Error: Interrupted while waiting for server";
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            return "Error: Unable to connect to server - " + cause.getMessage();
+        }
+    }
+    
+    // A command that timed out in the client has no response; connection failures
+    // propagate so the pool can retry a broken pooled connection
+    private static CompletableFuture<String> timeoutAsMissing(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        return cause instanceof TimeoutException
+            ? CompletableFuture.completedFuture(null)
+            : CompletableFuture.failedFuture(cause);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        connectionPool.close();
+        if (historyStore != null) {
+            historyStore.close();
+        }
+    }
+    
+    /**
+     * Return the cached status, refreshing it once the refresh interval has passed.
+     * Only one refresh runs at a time: while it is in flight other callers get the
+     * previous snapshot, and only wait when there is no snapshot yet.
+     * <p>
+     * With stale-while-revalidate enabled an expired snapshot is returned straight
+     * away and refreshed on a background thread, so requests never wait on RCON
+     * unless the snapshot is older than the configured max staleness.
+     */
     public ServerStatus getServerStatus() {
-        // Check if we need to refresh the cache
-        if (shouldRefreshCache()) {
-            refreshCache();
+        StatusSnapshot current = snapshot.get();
+        if (current != null && !isExpired(current)) {
+            return current.status();
         }
         
-        // Return cached status or fetch fresh if cache is not initialized
-        if (cachedStatus == null) {
-            refreshCache();
+        if (current != null && serverConfig.isStaleWhileRevalidate() && !isTooStale(current)) {
+            refreshInBackground();
+            return current.status();
+        }
+        
+        if (current != null) {
+            if (!refreshLock.tryLock()) {
+                // Another request is already refreshing; serve the previous snapshot
+                return current.status();
+            }
+        } else {
+            refreshLock.lock();
         }
         
-        return cachedStatus;
+        try {
+            // The refresh we would have started may have finished while acquiring the lock
+            StatusSnapshot latest = snapshot.get();
+            if (latest != null && latest != current && !isExpired(latest)) {
+                return latest.status();
+            }
+            return refreshCache().status();
+        } finally {
+            refreshLock.unlock();
+        }
     }
     
-    private boolean shouldRefreshCache() {
-        if (lastFetchTime == null) {
-            return true;
+    private void refreshInBackground() {
+        if (!backgroundRefreshQueued.compareAndSet(false, true)) {
+            return;
         }
-        
-        long millisSinceLastFetch = Instant.now().toEpochMilli() - lastFetchTime.toEpochMilli();
-        return millisSinceLastFetch >= serverConfig.getRefreshIntervalMs();
+        try {
+            refreshExecutor.execute(() -> {
+                refreshLock.lock();
+                try {
+                    StatusSnapshot latest = snapshot.get();
+                    if (latest == null || isExpired(latest)) {
+                        refreshCache();
+                    }
+                } finally {
+                    refreshLock.unlock();
+                    backgroundRefreshQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            backgroundRefreshQueued.set(false);
+        }
+    }
+    
+    private boolean isExpired(StatusSnapshot current) {
+        return millisSinceFetch(current) >= serverConfig.getRefreshIntervalMs();
+    }
+    
+    private boolean isTooStale(StatusSnapshot current) {
+        return millisSinceFetch(current) >= serverConfig.getMaxStalenessMs();
+    }
+    
+    private long millisSinceFetch(StatusSnapshot current) {
+        return Instant.now().toEpochMilli() - current.fetchTime().toEpochMilli();
     }
     
-    private void refreshCache() {
-        String response = sendCommand("list");
-        ResourceUsage resourceUsage = getResourceUsage();
-        cachedStatus = new ServerStatus(serverConfig, response, resourceUsage);
-        lastFetchTime = Instant.now();
+    private StatusSnapshot refreshCache() {
+        List<String> responses = sendCommands(STATUS_COMMANDS);
+        String response = responses.get(0);
+        ResourceUsage resourceUsage = readResources(responses.get(1), responses.get(2));
+        StatusSnapshot refreshed = new StatusSnapshot(new ServerStatus(serverConfig, response, resourceUsage),
+                                                      Instant.now());
+        snapshot.set(refreshed);
         
         // Track retrieval in history
         boolean success = !response.startsWith("Error:");
         int playerCount = extractPlayerCount(response);
-        addRetrievalRecord(new RetrievalRecord(lastFetchTime, success, playerCount, resourceUsage));
+        addRetrievalRecord(new RetrievalRecord(refreshed.fetchTime(), success, playerCount, resourceUsage));
+        recordHistory(refreshed.fetchTime().toEpochMilli(), success, playerCount,
+                      resourceUsage.isTpsAvailable() ? resourceUsage.getTps1m() : Double.NaN,
+                      resourceUsage.isMemoryAvailable() ? (double) resourceUsage.getMemoryUsedBytes() / BYTES_PER_MB : Double.NaN,
+                      resourceUsage.isMemoryAvailable() ? (double) resourceUsage.getMemoryMaxBytes() / BYTES_PER_MB : Double.NaN);
+        return refreshed;
     }
     
     private int extractPlayerCount(String playerListResponse) {
@@ -76,191 +241,159 @@ public class RconService {
             return 0;
         }
         
-        // Extract player count from response like "There are 0 of a max of 20 players online"
-        try {
-            String[] parts = playerListResponse.split(" ");
-            for (int i = 0; i < parts.length - 1; i++) {
-                if (parts[i].equals("are") && i + 1 < parts.length) {
-                    return Integer.parseInt(parts[i + 1]);
-                }
+        RconResponseParser.PlayerCount players = parser.parseList(playerListResponse);
+        return players != null ? players.online() : 0;
+    }
+    
+    private synchronized void addRetrievalRecord(RetrievalRecord record) {
+        recentHead = (recentHead + 1) % MAX_HISTORY_SIZE;
+        recentRecords[recentHead] = record;
+        recentCount = Math.min(recentCount + 1, MAX_HISTORY_SIZE);
+    }
+    
+    /**
+     * The last MAX_HISTORY_SIZE records, most recent first
+     */
+    public synchronized List<RetrievalRecord> getRetrievalHistory() {
+        List<RetrievalRecord> history = new ArrayList<>(recentCount);
+        for (int i = 0; i < recentCount; i++) {
+            history.add(recentRecords[Math.floorMod(recentHead - i, MAX_HISTORY_SIZE)]);
+        }
+        return Collections.unmodifiableList(history);
+    }
+    
+    /**
+     * Downsampled history between two instants at the given resolution, oldest first
+     */
+    public StatusHistory.Series getHistorySeries(StatusHistory.Resolution resolution, Instant from, Instant to) {
+        loadPersistedHistory();
+        return statusHistory.series(resolution, from.toEpochMilli(), to.toEpochMilli());
+    }
+    
+    private void recordHistory(long timestampMs, boolean success, int playerCount,
+                               double tps, double memoryUsedMb, double memoryMaxMb) {
+        loadPersistedHistory();
+        statusHistory.record(timestampMs, success, playerCount, tps, memoryUsedMb, memoryMaxMb);
+        if (historyStore != null) {
+            try {
+                historyStore.append(timestampMs, success, playerCount, tps, memoryUsedMb, memoryMaxMb);
+            } catch (IOException e) {
+                logger.warn("Failed to persist status history sample: {}", e.getMessage());
             }
-        } catch (Exception e) {
-            // If parsing fails, return 0
         }
-        return 0;
     }
     
-    private synchronized void addRetrievalRecord(RetrievalRecord record) {
-        retrievalHistory.addFirst(record);
-        
-        // Keep only the last MAX_HISTORY_SIZE records
-        while (retrievalHistory.size() > MAX_HISTORY_SIZE) {
-            retrievalHistory.removeLast();
+    /**
+     * Replay the persisted samples into the in-memory history. Runs once, on first
+     * use rather than at startup, and before any new sample is recorded so buckets
+     * stay in time order.
+     */
+    private synchronized void loadPersistedHistory() {
+        if (persistedHistoryLoaded || historyStore == null) {
+            return;
+        }
+        persistedHistoryLoaded = true;
+        long now = System.currentTimeMillis();
+        try {
+            historyStore.read(now - serverConfig.getHistoryHourRetentionMs(), now, statusHistory::record);
+        } catch (IOException e) {
+            logger.warn("Failed to load persisted status history: {}", e.getMessage());
         }
     }
     
-    public synchronized List<RetrievalRecord> getRetrievalHistory() {
-        return Collections.unmodifiableList(new ArrayList<>(retrievalHistory));
+    @Scheduled(fixedRate = 3600000) // 1 hour in milliseconds
+    public void compactHistoryStore() {
+        if (historyStore == null) {
+            return;
+        }
+        try {
+            historyStore.compact(System.currentTimeMillis());
+        } catch (IOException e) {
+            logger.warn("Failed to compact status history store: {}", e.getMessage());
+        }
+    }
+    
+    private static StatusHistoryStore openHistoryStore(ServerConfig serverConfig) {
+        String path = serverConfig.getHistoryStorePath();
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            return new StatusHistoryStore(Path.of(path), serverConfig.getHistoryHourRetentionMs());
+        } catch (IOException e) {
+            logger.warn("Status history will not be persisted, unable to open {}: {}", path, e.getMessage());
+            return null;
+        }
     }
     
     // Scheduled task to fetch data every 30 minutes regardless of user visits
     @Scheduled(fixedRate = 1800000) // 30 minutes in milliseconds
     public void scheduledDataFetch() {
         // Force a cache refresh to ensure history is populated
-        refreshCache();
+        refreshLock.lock();
+        try {
+            refreshCache();
+        } finally {
+            refreshLock.unlock();
+        }
     }
     
     public Instant getLastFetchTime() {
-        return lastFetchTime;
+        StatusSnapshot current = snapshot.get();
+        return current != null ? current.fetchTime() : null;
+    }
+    
+    /**
+     * The current snapshot without triggering a refresh, or null before the first fetch
+     */
+    public StatusSnapshot getCachedSnapshot() {
+        return snapshot.get();
     }
     
     public ResourceUsage getResourceUsage() {
-        String tpsResponse = sendCommand("tps");
-        
-        // Default values when unable to fetch
-        String tps = "N/A";
-        String memoryUsed = "N/A";
-        String memoryMax = "N/A";
-        String memoryFree = "N/A";
-        double memoryUsedPercent = 0.0;
-        
+        List<String> responses = sendCommands(RESOURCE_COMMANDS);
+        return readResources(responses.get(0), responses.get(1));
+    }
+    
+    private ResourceUsage readResources(String tpsResponse, String forgeResponse) {
+        RconResponseParser.Tps tps = null;
+        RconResponseParser.Memory memory = null;
         if (!tpsResponse.startsWith("Error:")) {
-            // Parse TPS response
-            // Example format: "TPS from last 1m, 5m, 15m: 20.0, 20.0, 20.0"
-            if (tpsResponse.contains("TPS")) {
-                tps = parseTps(tpsResponse);
-            }
-            
-            // Parse memory information if present
-            // Example format might include: "Memory: 1024MB/2048MB"
-            if (tpsResponse.contains("Memory") || tpsResponse.contains("memory")) {
-                String[] memoryParts = parseMemory(tpsResponse);
-                if (memoryParts.length >= 3) {
-                    memoryUsed = memoryParts[0];
-                    memoryMax = memoryParts[1];
-                    memoryFree = memoryParts[2];
-                }
-            }
-        }
-        
-        // Try to get memory from forge tps command if standard tps didn't provide it
-        if ("N/A".equals(memoryUsed)) {
-            String forgeResponse = sendCommand("forge tps");
-            if (!forgeResponse.startsWith("Error:") && forgeResponse.contains("Memory")) {
-                String[] memoryParts = parseMemory(forgeResponse);
-                if (memoryParts.length >= 3) {
-                    memoryUsed = memoryParts[0];
-                    memoryMax = memoryParts[1];
-                    memoryFree = memoryParts[2];
-                }
-            }
-        }
-        
-        // Calculate memory usage percentage
-        if (!"N/A".equals(memoryUsed) && !"N/A".equals(memoryMax)) {
-            try {
-                double used = parseMemoryValue(memoryUsed);
-                double max = parseMemoryValue(memoryMax);
-                if (max > 0) {
-                    memoryUsedPercent = (used / max) * 100.0;
-                }
-            } catch (Exception e) {
-                // Keep default 0.0 if parsing fails
-            }
+            tps = parser.parseTps(tpsResponse);
+            memory = parser.parseMemory(tpsResponse);
         }
         
-        return new ResourceUsage(tps, memoryUsed, memoryMax, memoryFree, memoryUsedPercent);
-    }
-    
-    private String parseTps(String response) {
-        // Extract TPS values from response
-        // Common formats:
-        // "TPS from last 1m, 5m, 15m: 20.0, 20.0, 20.0"
-        // "§6TPS from last 1m, 5m, 15m: §a20.0§6, §a20.0§6, §a20.0"
-        // "§6TPS from last 1m, 5m, 15m: §a*20.0, §a*20.0, §a*20.0"
-        
-        // Remove color codes
-        String cleaned = response.replaceAll("§[0-9a-fk-or]", "");
-        
-        // Remove asterisks that may appear before TPS values
-        cleaned = cleaned.replaceAll("\\*", "");
-        
-        if (cleaned.contains(":")) {
-            String[] parts = cleaned.split(":");
-            if (parts.length > 1) {
-                // Extract just the first line if multi-line response
-                String tpsLine = parts[1].split("\\n")[0].trim();
-                return tpsLine;
+        RconResponseParser.ForgeTps forgeTps = null;
+        if (!forgeResponse.startsWith("Error:")) {
+            forgeTps = parser.parseForgeTps(forgeResponse);
+            // "forge tps" reports memory when the standard tps command did not
+            if (memory == null) {
+                memory = parser.parseMemory(forgeResponse);
             }
         }
         
-        return response.trim();
-    }
-    
-    private String[] parseMemory(String response) {
-        // Try to extract memory information
-        // Common formats:
-        // "Memory: 1024MB/2048MB"
-        // "Mem: 50.0% 1024MB/2048MB"
-        // "Current Memory Usage: 401/2048 mb (Max: 3072 mb)"
-        
-        String[] result = new String[3]; // used, max, free
-        result[0] = "N/A";
-        result[1] = "N/A";
-        result[2] = "N/A";
-        
-        // Limit input length to prevent ReDoS attacks
-        if (response == null || response.length() > 1000) {
-            return result;
-        }
-        
-        // Remove color codes
-        String cleaned = response.replaceAll("§[0-9a-fk-or]", "");
-        
-        // Look for pattern like "401/2048 mb" or "1024MB/2048MB" or "1024M/2048M"
-        // Now handles optional space before unit and case-insensitive matching
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "(\\d+\\.?\\d*)\\s*/\\s*(\\d+\\.?\\d*)\\s*([MmGg])[Bb]?",
-            java.util.regex.Pattern.CASE_INSENSITIVE
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(cleaned);
-        
-        if (matcher.find()) {
-            String usedStr = matcher.group(1);
-            String maxStr = matcher.group(2);
-            String unit = matcher.group(3).toUpperCase() + "B";
-            
-            result[0] = usedStr + unit;
-            result[1] = maxStr + unit;
-            
-            // Calculate free memory
-            try {
-                double used = Double.parseDouble(usedStr);
-                double max = Double.parseDouble(maxStr);
-                double free = max - used;
-                result[2] = String.format("%.1f%s", free, unit);
-            } catch (Exception e) {
-                result[2] = "N/A";
-            }
+        List<DimensionTickTime> dimensionTickTimes = List.of();
+        double meanTickMs = Double.NaN;
+        if (forgeTps != null) {
+            meanTickMs = forgeTps.meanTickMs();
+            dimensionTickTimes = forgeTps.dimensions().stream()
+                .map(dimension -> new DimensionTickTime(dimension.dimension(), dimension.meanTickMs(), dimension.meanTps()))
+                .toList();
         }
         
-        return result;
+        return new ResourceUsage(tps != null ? tps.oneMinute() : Double.NaN,
+                                 tps != null ? tps.fiveMinutes() : Double.NaN,
+                                 tps != null ? tps.fifteenMinutes() : Double.NaN,
+                                 memory != null ? memory.usedBytes() : -1,
+                                 memory != null ? memory.maxBytes() : -1,
+                                 meanTickMs, dimensionTickTimes);
     }
     
-    private double parseMemoryValue(String memoryStr) {
-        // Parse memory string like "1024MB" or "2.5GB" to MB
-        if (memoryStr == null || memoryStr.equals("N/A")) {
-            return 0.0;
-        }
-        
-        String cleaned = memoryStr.replaceAll("[^0-9.]", "");
-        double value = Double.parseDouble(cleaned);
-        
-        if (memoryStr.contains("GB") || memoryStr.contains("G")) {
-            value *= 1024; // Convert GB to MB
-        }
-        
-        return value;
+    /**
+     * A status and the time it was fetched, published together so readers never see
+     * one without the other
+     */
+    public record StatusSnapshot(ServerStatus status, Instant fetchTime) {
     }
     
     public static class ServerStatus {
@@ -297,41 +430,150 @@ public class RconService {
         public ResourceUsage getResourceUsage() {
             return resourceUsage;
         }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ServerStatus other)) {
+                return false;
+            }
+            return maxPlayers == other.maxPlayers && online == other.online
+                && Objects.equals(motd, other.motd) && Objects.equals(playerList, other.playerList)
+                && Objects.equals(resourceUsage, other.resourceUsage);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(motd, maxPlayers, playerList, online, resourceUsage);
+        }
     }
     
+    /**
+     * Resource figures as numbers; formatting is left to the views. Values the server
+     * did not report are 0 and flagged by {@link #isTpsAvailable()} and
+     * {@link #isMemoryAvailable()}.
+     */
     public static class ResourceUsage {
-        private final String tps;
-        private final String memoryUsed;
-        private final String memoryMax;
-        private final String memoryFree;
-        private final double memoryUsedPercent;
+        private final boolean tpsAvailable;
+        private final double tps1m;
+        private final double tps5m;
+        private final double tps15m;
+        private final boolean memoryAvailable;
+        private final long memoryUsedBytes;
+        private final long memoryMaxBytes;
+        private final double meanTickMs;
+        private final List<DimensionTickTime> dimensionTickTimes;
+        
+        /**
+         * @param tps1m TPS over the last minute, NaN if unknown; likewise tps5m and tps15m
+         * @param memoryUsedBytes used heap, negative if unknown
+         * @param memoryMaxBytes maximum heap, negative if unknown
+         */
+        public ResourceUsage(double tps1m, double tps5m, double tps15m, long memoryUsedBytes, long memoryMaxBytes) {
+            this(tps1m, tps5m, tps15m, memoryUsedBytes, memoryMaxBytes, Double.NaN, List.of());
+        }
+        
+        /**
+         * @param meanTickMs overall mean tick time reported by Forge, NaN if unknown
+         * @param dimensionTickTimes per-dimension tick times reported by Forge
+         */
+        public ResourceUsage(double tps1m, double tps5m, double tps15m, long memoryUsedBytes, long memoryMaxBytes,
+                             double meanTickMs, List<DimensionTickTime> dimensionTickTimes) {
+            this.tpsAvailable = !Double.isNaN(tps1m);
+            this.tps1m = orZero(tps1m);
+            this.tps5m = orZero(tps5m);
+            this.tps15m = orZero(tps15m);
+            this.memoryAvailable = memoryUsedBytes >= 0 && memoryMaxBytes > 0;
+            this.memoryUsedBytes = memoryAvailable ? memoryUsedBytes : 0;
+            this.memoryMaxBytes = memoryAvailable ? memoryMaxBytes : 0;
+            this.meanTickMs = orZero(meanTickMs);
+            this.dimensionTickTimes = List.copyOf(dimensionTickTimes);
+        }
+        
+        public static ResourceUsage unavailable() {
+            return new ResourceUsage(Double.NaN, Double.NaN, Double.NaN, -1, -1);
+        }
+        
+        public boolean isTpsAvailable() {
+            return tpsAvailable;
+        }
+        
+        public double getTps1m() {
+            return tps1m;
+        }
+        
+        public double getTps5m() {
+            return tps5m;
+        }
         
-        public ResourceUsage(String tps, String memoryUsed, String memoryMax, String memoryFree, double memoryUsedPercent) {
-            this.tps = tps;
-            this.memoryUsed = memoryUsed;
-            this.memoryMax = memoryMax;
-            this.memoryFree = memoryFree;
-            this.memoryUsedPercent = memoryUsedPercent;
+        public double getTps15m() {
+            return tps15m;
         }
         
-        public String getTps() {
-            return tps;
+        public boolean isMemoryAvailable() {
+            return memoryAvailable;
         }
         
-        public String getMemoryUsed() {
-            return memoryUsed;
+        public long getMemoryUsedBytes() {
+            return memoryUsedBytes;
         }
         
-        public String getMemoryMax() {
-            return memoryMax;
+        public long getMemoryMaxBytes() {
+            return memoryMaxBytes;
         }
         
-        public String getMemoryFree() {
-            return memoryFree;
+        public long getMemoryFreeBytes() {
+            return memoryMaxBytes - memoryUsedBytes;
         }
         
         public double getMemoryUsedPercent() {
-            return memoryUsedPercent;
+            return memoryAvailable ? (double) memoryUsedBytes / memoryMaxBytes * 100.0 : 0.0;
+        }
+        
+        public double getMeanTickMs() {
+            return meanTickMs;
+        }
+        
+        public List<DimensionTickTime> getDimensionTickTimes() {
+            return dimensionTickTimes;
+        }
+        
+        private static double orZero(double value) {
+            return Double.isNaN(value) ? 0.0 : value;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResourceUsage other)) {
+                return false;
+            }
+            return tpsAvailable == other.tpsAvailable && memoryAvailable == other.memoryAvailable
+                && Double.compare(tps1m, other.tps1m) == 0 && Double.compare(tps5m, other.tps5m) == 0
+                && Double.compare(tps15m, other.tps15m) == 0 && memoryUsedBytes == other.memoryUsedBytes
+                && memoryMaxBytes == other.memoryMaxBytes && Double.compare(meanTickMs, other.meanTickMs) == 0
+                && dimensionTickTimes.equals(other.dimensionTickTimes);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(tpsAvailable, tps1m, tps5m, tps15m, memoryAvailable, memoryUsedBytes, memoryMaxBytes,
+                                meanTickMs, dimensionTickTimes);
+        }
+    }
+    
+    /**
+     * Forge tick statistics for one dimension; values the server did not report are 0
+     */
+    public record DimensionTickTime(String dimension, double meanTickMs, double meanTps) {
+        
+        public DimensionTickTime {
+            meanTickMs = Double.isNaN(meanTickMs) ? 0.0 : meanTickMs;
+            meanTps = Double.isNaN(meanTps) ? 0.0 : meanTps;
         }
     }
 }
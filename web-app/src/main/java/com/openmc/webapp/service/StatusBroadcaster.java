@@ -0,0 +1,152 @@
+package com.openmc.webapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes server status changes to Server-Sent Events subscribers. A single scheduled
+ * producer reads the status cache and broadcasts only when the status differs from the
+ * last one broadcast, so any number of open dashboards costs one RCON poll per refresh
+ * interval. Each event's id is the fetch time of the snapshot in which the status last
+ * changed, so a page can tell whether an event is newer than what it was rendered with.
+ * Writes to subscribers run on virtual threads, so a slow client holds up neither the
+ * other subscribers nor the scheduler.
+ */
+@Service
+public class StatusBroadcaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StatusBroadcaster.class);
+    
+    // Browsers reconnect on their own once the stream times out
+    private static final long EMITTER_TIMEOUT_MS = 1800000;
+    
+    private final RconService rconService;
+    // SseEmitter is not thread-safe; the producer and new subscriptions can race. A lock
+    // rather than a monitor, so a slow client write does not pin a virtual thread.
+    private final Map<SseEmitter, ReentrantLock> subscribers = new ConcurrentHashMap<>();
+    // The snapshot in which the broadcast status last changed, or null before the first
+    // broadcast. Only the producer writes it; subscribe only reads it.
+    private volatile RconService.StatusSnapshot lastBroadcast;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    
+    public StatusBroadcaster(RconService rconService) {
+        this.rconService = rconService;
+    }
+    
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(EMITTER_TIMEOUT_MS));
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.put(emitter, new ReentrantLock());
+        
+        // Start the stream with the current status rather than waiting for the next change
+        RconService.StatusSnapshot current = rconService.getCachedSnapshot();
+        RconService.StatusSnapshot broadcast = lastBroadcast;
+        if (current != null && broadcast != null && broadcast.status().equals(current.status())) {
+            // Same status as last broadcast, so keep the time it changed as the event id
+            current = broadcast;
+        }
+        if (current != null) {
+            send(emitter, current);
+        }
+        return emitter;
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    /**
+     * Refresh the status if it has expired and push it to every subscriber when it
+     * changed. Does nothing while nobody is listening.
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void broadcastIfChanged() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        
+        rconService.getServerStatus();
+        RconService.StatusSnapshot previous = lastBroadcast;
+        RconService.StatusSnapshot current = rconService.getCachedSnapshot();
+        // A refreshed snapshot with the same status keeps the earlier snapshot as the last change
+        if (current == null || (previous != null && previous.status().equals(current.status()))) {
+            return;
+        }
+        lastBroadcast = current;
+        
+        for (SseEmitter emitter : subscribers.keySet()) {
+            sendInBackground(() -> send(emitter, current));
+        }
+    }
+    
+    // Keeps idle streams open through proxies that close silent connections
+    @Scheduled(fixedRate = 25000)
+    public void sendHeartbeat() {
+        subscribers.forEach((emitter, lock) -> sendInBackground(() -> {
+            lock.lock();
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                drop(emitter, e);
+            } finally {
+                lock.unlock();
+            }
+        }));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+    
+    private void sendInBackground(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+    
+    private void send(SseEmitter emitter, RconService.StatusSnapshot snapshot) {
+        ReentrantLock lock = subscribers.get(emitter);
+        if (lock == null) {
+            // Completed or dropped in the meantime
+            return;
+        }
+        lock.lock();
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("status")
+                    .id(snapshot.fetchTime().toString())
+                    .data(snapshot.status(), MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            drop(emitter, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void drop(SseEmitter emitter, Exception cause) {
+        logger.debug("Dropping status stream subscriber: {}", cause.getMessage());
+        subscribers.remove(emitter);
+        emitter.completeWithError(cause);
+    }
+}
@@ -0,0 +1,190 @@
+package com.openmc.webapp.service;
+
+/**
+ * Fixed-size time series of server status samples. Every sample is folded into three
+ * tiers of 1 minute, 5 minute and 1 hour buckets, each a ring of primitive arrays
+ * sized by its retention, so memory use is set at construction and does not grow
+ * with the number of samples.
+ * <p>
+ * Buckets keep sums and counts, and series report the average of the samples in each
+ * bucket. Values no sample in a bucket reported (TPS or memory while the server was
+ * offline or a fetch failed) are reported as null, so they are not mistaken for 0.
+ */
+public class StatusHistory {
+    
+    public enum Resolution {
+        MINUTE("1m", 60_000L),
+        FIVE_MINUTES("5m", 300_000L),
+        HOUR("1h", 3_600_000L);
+        
+        private final String label;
+        private final long bucketMs;
+        
+        Resolution(String label, long bucketMs) {
+            this.label = label;
+            this.bucketMs = bucketMs;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+        
+        public long getBucketMs() {
+            return bucketMs;
+        }
+        
+        public static Resolution fromLabel(String label) {
+            for (Resolution resolution : values()) {
+                if (resolution.label.equalsIgnoreCase(label)) {
+                    return resolution;
+                }
+            }
+            throw new IllegalArgumentException("Unknown resolution: " + label);
+        }
+    }
+    
+    private final Tier[] tiers = new Tier[Resolution.values().length];
+    
+    public StatusHistory(long minuteRetentionMs, long fiveMinuteRetentionMs, long hourRetentionMs) {
+        tiers[Resolution.MINUTE.ordinal()] = new Tier(Resolution.MINUTE, minuteRetentionMs);
+        tiers[Resolution.FIVE_MINUTES.ordinal()] = new Tier(Resolution.FIVE_MINUTES, fiveMinuteRetentionMs);
+        tiers[Resolution.HOUR.ordinal()] = new Tier(Resolution.HOUR, hourRetentionMs);
+    }
+    
+    /**
+     * Record one sample
+     *
+     * @param tps TPS over the last minute, or NaN if unknown
+     * @param memoryUsedMb used heap in MB, or NaN if unknown
+     * @param memoryMaxMb maximum heap in MB, or NaN if unknown
+     */
+    public synchronized void record(long timestampMs, boolean success, int playerCount,
+                                    double tps, double memoryUsedMb, double memoryMaxMb) {
+        for (Tier tier : tiers) {
+            tier.add(timestampMs, success, playerCount, tps, memoryUsedMb, memoryMaxMb);
+        }
+    }
+    
+    /**
+     * Buckets of the given resolution that start within [fromMs, toMs], oldest first
+     */
+    public synchronized Series series(Resolution resolution, long fromMs, long toMs) {
+        return tiers[resolution.ordinal()].series(fromMs, toMs);
+    }
+    
+    public int getCapacity(Resolution resolution) {
+        return tiers[resolution.ordinal()].capacity;
+    }
+    
+    /**
+     * Column-oriented series, one entry per bucket in each array. TPS and memory are
+     * null for buckets without a sample that reported them.
+     */
+    public record Series(String resolution, long[] timestamps, int[] samples, double[] successRatio,
+                         double[] playerCount, Double[] tps, Double[] memoryUsedMb, Double[] memoryMaxMb) {
+    }
+    
+    private static class Tier {
+        private final Resolution resolution;
+        private final int capacity;
+        private final long[] bucketStart;
+        private final int[] samples;
+        private final int[] successes;
+        private final long[] playerSum;
+        private final double[] tpsSum;
+        private final int[] tpsSamples;
+        private final double[] memoryUsedSum;
+        private final double[] memoryMaxSum;
+        private final int[] memorySamples;
+        // Index of the newest bucket, and how many buckets hold data
+        private int head = -1;
+        private int size;
+        
+        Tier(Resolution resolution, long retentionMs) {
+            this.resolution = resolution;
+            this.capacity = (int) Math.max(1, Math.min(Integer.MAX_VALUE, retentionMs / resolution.getBucketMs()));
+            this.bucketStart = new long[capacity];
+            this.samples = new int[capacity];
+            this.successes = new int[capacity];
+            this.playerSum = new long[capacity];
+            this.tpsSum = new double[capacity];
+            this.tpsSamples = new int[capacity];
+            this.memoryUsedSum = new double[capacity];
+            this.memoryMaxSum = new double[capacity];
+            this.memorySamples = new int[capacity];
+        }
+        
+        void add(long timestampMs, boolean success, int playerCount,
+                 double tps, double memoryUsedMb, double memoryMaxMb) {
+            long start = timestampMs - Math.floorMod(timestampMs, resolution.getBucketMs());
+            // Samples older than the newest bucket (clock adjustments) are folded into it
+            if (head < 0 || start > bucketStart[head]) {
+                head = (head + 1) % capacity;
+                size = Math.min(size + 1, capacity);
+                clear(head, start);
+            }
+            
+            samples[head]++;
+            if (success) {
+                successes[head]++;
+            }
+            playerSum[head] += playerCount;
+            if (!Double.isNaN(tps)) {
+                tpsSum[head] += tps;
+                tpsSamples[head]++;
+            }
+            if (!Double.isNaN(memoryUsedMb) && !Double.isNaN(memoryMaxMb)) {
+                memoryUsedSum[head] += memoryUsedMb;
+                memoryMaxSum[head] += memoryMaxMb;
+                memorySamples[head]++;
+            }
+        }
+        
+        Series series(long fromMs, long toMs) {
+            int count = 0;
+            int[] indexes = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                int index = Math.floorMod(head - i, capacity);
+                if (bucketStart[index] >= fromMs && bucketStart[index] <= toMs) {
+                    indexes[count++] = index;
+                }
+            }
+            
+            long[] timestamps = new long[count];
+            int[] sampleCounts = new int[count];
+            double[] successRatio = new double[count];
+            double[] players = new double[count];
+            Double[] tps = new Double[count];
+            Double[] memoryUsed = new Double[count];
+            Double[] memoryMax = new Double[count];
+            for (int i = 0; i < count; i++) {
+                int index = indexes[i];
+                timestamps[i] = bucketStart[index];
+                sampleCounts[i] = samples[index];
+                successRatio[i] = (double) successes[index] / samples[index];
+                players[i] = (double) playerSum[index] / samples[index];
+                tps[i] = average(tpsSum[index], tpsSamples[index]);
+                memoryUsed[i] = average(memoryUsedSum[index], memorySamples[index]);
+                memoryMax[i] = average(memoryMaxSum[index], memorySamples[index]);
+            }
+            return new Series(resolution.getLabel(), timestamps, sampleCounts, successRatio,
+                              players, tps, memoryUsed, memoryMax);
+        }
+        
+        private void clear(int index, long start) {
+            bucketStart[index] = start;
+            samples[index] = 0;
+            successes[index] = 0;
+            playerSum[index] = 0;
+            tpsSum[index] = 0;
+            tpsSamples[index] = 0;
+            memoryUsedSum[index] = 0;
+            memoryMaxSum[index] = 0;
+            memorySamples[index] = 0;
+        }
+        
+        private static Double average(double sum, int count) {
+            return count == 0 ? null : sum / count;
+        }
+    }
+}
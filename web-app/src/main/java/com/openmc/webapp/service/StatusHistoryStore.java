@@ -0,0 +1,253 @@
+package com.openmc.webapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk store for status history samples. Samples are fixed 64 byte
+ * records written into memory-mapped segment files, so appending is a memory copy
+ * with no system call; segments are flushed to disk when they fill up and on close.
+ * <p>
+ * Each segment is named after the timestamp of its first record. A record whose
+ * checksum does not match marks the end of the data, which is how a torn write at
+ * the tail of the last segment is recovered after a crash. Segments whose newest
+ * record is older than the retention period are deleted.
+ */
+public class StatusHistoryStore implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StatusHistoryStore.class);
+    
+    static final int RECORD_SIZE = 64;
+    static final int RECORDS_PER_SEGMENT = 16384; // 1 MB segments
+    private static final String SEGMENT_SUFFIX = ".seg";
+    
+    // Record layout; bytes 40 to 59 are reserved
+    private static final int TIMESTAMP_OFFSET = 0;
+    private static final int FLAGS_OFFSET = 8;
+    private static final int PLAYER_COUNT_OFFSET = 12;
+    private static final int TPS_OFFSET = 16;
+    private static final int MEMORY_USED_OFFSET = 24;
+    private static final int MEMORY_MAX_OFFSET = 32;
+    private static final int CHECKSUM_OFFSET = 60;
+    private static final int FLAG_SUCCESS = 1;
+    
+    private final Path directory;
+    private final long retentionMs;
+    // First timestamp of each segment, oldest first
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final CRC32 crc = new CRC32();
+    private final byte[] recordBytes = new byte[RECORD_SIZE];
+    private MappedByteBuffer tail;
+    private long tailStart;
+    private int tailCount;
+    private long lastTimestamp = Long.MIN_VALUE;
+    
+    /**
+     * Callback for records read back from the store
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long timestampMs, boolean success, int playerCount,
+                   double tps, double memoryUsedMb, double memoryMaxMb);
+    }
+    
+    /**
+     * Open the store, creating the directory if needed. Only the newest segment is
+     * read, to find where appending resumes; older segments are mapped when queried.
+     */
+    public StatusHistoryStore(Path directory, long retentionMs) throws IOException {
+        this.directory = directory;
+        this.retentionMs = retentionMs;
+        Files.createDirectories(directory);
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                 .forEach(file -> {
+                     Long start = parseSegmentStart(file);
+                     if (start != null) {
+                         segments.put(start, file);
+                     }
+                 });
+        }
+        
+        if (!segments.isEmpty()) {
+            var last = segments.lastEntry();
+            tail = map(last.getValue(), FileChannel.MapMode.READ_WRITE);
+            tailStart = last.getKey();
+            tailCount = countValidRecords(tail);
+            if (tailCount > 0) {
+                lastTimestamp = tail.getLong((tailCount - 1) * RECORD_SIZE + TIMESTAMP_OFFSET);
+            }
+            // Zero anything after the last valid record so a torn write cannot reappear
+            for (int position = tailCount * RECORD_SIZE; position < tail.capacity(); position += 8) {
+                if (tail.getLong(position) != 0) {
+                    tail.putLong(position, 0);
+                }
+            }
+            logger.info("Opened status history store at {} with {} segments", directory, segments.size());
+        }
+    }
+    
+    public synchronized void append(long timestampMs, boolean success, int playerCount,
+                                    double tps, double memoryUsedMb, double memoryMaxMb) throws IOException {
+        // Keep segments time-ordered so range queries can binary search
+        timestampMs = Math.max(timestampMs, lastTimestamp);
+        // A segment cut short by a crash during creation is treated as full
+        if (tail == null || (tailCount + 1) * RECORD_SIZE > tail.capacity()) {
+            rollSegment(timestampMs);
+        }
+        
+        int position = tailCount * RECORD_SIZE;
+        tail.putLong(position + TIMESTAMP_OFFSET, timestampMs);
+        tail.putInt(position + FLAGS_OFFSET, success ? FLAG_SUCCESS : 0);
+        tail.putInt(position + PLAYER_COUNT_OFFSET, playerCount);
+        tail.putDouble(position + TPS_OFFSET, tps);
+        tail.putDouble(position + MEMORY_USED_OFFSET, memoryUsedMb);
+        tail.putDouble(position + MEMORY_MAX_OFFSET, memoryMaxMb);
+        tail.putInt(position + CHECKSUM_OFFSET, checksum(tail, position));
+        tailCount++;
+        lastTimestamp = timestampMs;
+    }
+    
+    /**
+     * Visit every record with a timestamp in [fromMs, toMs], oldest first
+     */
+    public synchronized void read(long fromMs, long toMs, RecordVisitor visitor) throws IOException {
+        if (fromMs > toMs || segments.isEmpty()) {
+            return;
+        }
+        Long firstSegment = segments.floorKey(fromMs);
+        var range = segments.subMap(firstSegment != null ? firstSegment : Long.MIN_VALUE, true, toMs, true);
+        for (var segment : range.entrySet()) {
+            MappedByteBuffer buffer = segment.getKey() == tailStart && tail != null
+                ? tail : map(segment.getValue(), FileChannel.MapMode.READ_ONLY);
+            int count = buffer == tail ? tailCount : countValidRecords(buffer);
+            for (int i = firstIndexAtOrAfter(buffer, count, fromMs); i < count; i++) {
+                int position = i * RECORD_SIZE;
+                long timestamp = buffer.getLong(position + TIMESTAMP_OFFSET);
+                if (timestamp > toMs) {
+                    return;
+                }
+                visitor.visit(timestamp,
+                              (buffer.getInt(position + FLAGS_OFFSET) & FLAG_SUCCESS) != 0,
+                              buffer.getInt(position + PLAYER_COUNT_OFFSET),
+                              buffer.getDouble(position + TPS_OFFSET),
+                              buffer.getDouble(position + MEMORY_USED_OFFSET),
+                              buffer.getDouble(position + MEMORY_MAX_OFFSET));
+            }
+        }
+    }
+    
+    /**
+     * Delete segments whose records are all older than the retention period. The
+     * segment being appended to is always kept.
+     */
+    public synchronized void compact(long nowMs) throws IOException {
+        long cutoff = nowMs - retentionMs;
+        List<Long> expired = new ArrayList<>();
+        for (Long start : segments.keySet()) {
+            Long next = segments.higherKey(start);
+            // A segment ends where the next one begins
+            if (next != null && next <= cutoff) {
+                expired.add(start);
+            }
+        }
+        for (Long start : expired) {
+            Files.deleteIfExists(segments.remove(start));
+        }
+        if (!expired.isEmpty()) {
+            logger.info("Deleted {} expired status history segments", expired.size());
+        }
+    }
+    
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (tail != null) {
+            tail.force();
+            tail = null;
+        }
+    }
+    
+    private void rollSegment(long timestampMs) throws IOException {
+        if (tail != null) {
+            tail.force();
+        }
+        // Never reuse a name; a new segment always starts after the previous one
+        long start = segments.isEmpty() ? timestampMs : Math.max(timestampMs, segments.lastKey() + 1);
+        Path file = directory.resolve(start + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                                                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            tail = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) RECORDS_PER_SEGMENT * RECORD_SIZE);
+        }
+        segments.put(start, file);
+        tailStart = start;
+        tailCount = 0;
+    }
+    
+    private int countValidRecords(MappedByteBuffer buffer) {
+        int records = buffer.capacity() / RECORD_SIZE;
+        for (int i = 0; i < records; i++) {
+            int position = i * RECORD_SIZE;
+            if (buffer.getLong(position + TIMESTAMP_OFFSET) == 0
+                    || buffer.getInt(position + CHECKSUM_OFFSET) != checksum(buffer, position)) {
+                return i;
+            }
+        }
+        return records;
+    }
+    
+    private int firstIndexAtOrAfter(MappedByteBuffer buffer, int count, long timestampMs) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(mid * RECORD_SIZE + TIMESTAMP_OFFSET) < timestampMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private int checksum(MappedByteBuffer buffer, int position) {
+        buffer.get(position, recordBytes, 0, CHECKSUM_OFFSET);
+        crc.reset();
+        crc.update(recordBytes, 0, CHECKSUM_OFFSET);
+        return (int) crc.getValue();
+    }
+    
+    private static MappedByteBuffer map(Path file, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+            ? new StandardOpenOption[] {StandardOpenOption.READ}
+            : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, channel.size());
+        }
+    }
+    
+    private static Long parseSegmentStart(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
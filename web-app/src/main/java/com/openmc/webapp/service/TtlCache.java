@@ -0,0 +1,76 @@
+package com.openmc.webapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache for a single value loaded from a slow backend. Only one load runs at a time:
+ * callers that find the value expired while another caller is loading it wait for
+ * that load and share its result instead of calling the backend themselves.
+ * <p>
+ * When a load fails the previous value keeps being served, for up to the max
+ * staleness after it was loaded, and the backend is not asked again until another
+ * TTL has passed.
+ */
+class TtlCache<T> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TtlCache.class);
+    
+    private final LongSupplier clock;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile Entry<T> entry;
+    
+    TtlCache() {
+        this(System::currentTimeMillis);
+    }
+    
+    TtlCache(LongSupplier clock) {
+        this.clock = clock;
+    }
+    
+    /**
+     * Return the cached value, loading it if it is missing or older than the TTL
+     *
+     * @param maxStaleMs how long after loading a value may be served while loads fail
+     * @throws RuntimeException whatever the loader threw, when there is no value to fall back on
+     */
+    T get(long ttlMs, long maxStaleMs, Supplier<T> loader) {
+        Entry<T> current = entry;
+        if (current != null && clock.getAsLong() < current.expiresAt()) {
+            return current.value();
+        }
+        
+        loadLock.lock();
+        try {
+            // Another caller may have loaded it while we waited
+            current = entry;
+            long now = clock.getAsLong();
+            if (current != null && now < current.expiresAt()) {
+                return current.value();
+            }
+            
+            try {
+                T value = loader.get();
+                entry = new Entry<>(value, now, now + ttlMs);
+                return value;
+            } catch (RuntimeException e) {
+                if (current == null || now - current.loadedAt() >= maxStaleMs) {
+                    throw e;
+                }
+                // Serve the stale value and leave the backend alone until the next TTL
+                logger.warn("Load failed, serving value from {} ms ago: {}", now - current.loadedAt(), e.getMessage());
+                entry = new Entry<>(current.value(), current.loadedAt(), now + ttlMs);
+                return current.value();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+    
+    private record Entry<T>(T value, long loadedAt, long expiresAt) {
+    }
+}
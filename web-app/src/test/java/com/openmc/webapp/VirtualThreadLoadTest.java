@@ -0,0 +1,101 @@
+package com.openmc.webapp;
+
+import com.openmc.rcon.FakeRconServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test with a slow Minecraft server behind the dashboard. Tomcat is limited to
+ * a handful of threads, so with platform threads the requests would queue behind the
+ * ones waiting on RCON; on virtual threads they all wait at the same time.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.threads.virtual.enabled=true",
+    "server.tomcat.threads.max=4",
+    "minecraft.server.host=localhost",
+    "minecraft.server.rcon-password=secret",
+    "minecraft.server.rcon-pool-size=40"
+})
+@DisplayName("Virtual Thread Load Tests")
+class VirtualThreadLoadTest {
+
+    private static final int TOMCAT_THREADS = 4;
+    private static final int REQUESTS = 40;
+    // Each /api/resources request sends two commands
+    private static final long COMMAND_DELAY_MS = 250;
+    private static final long REQUEST_DELAY_MS = 2 * COMMAND_DELAY_MS;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static FakeRconServer minecraftServer;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void rconPort(DynamicPropertyRegistry registry) throws IOException {
+        minecraftServer = new FakeRconServer("secret", command -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(COMMAND_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return command.equals("tps") ? "TPS from last 1m, 5m, 15m: 20.0, 20.0, 20.0" : "Unknown command";
+        });
+        registry.add("minecraft.server.rcon-port", minecraftServer::getPort);
+    }
+
+    @AfterAll
+    static void stopMinecraftServer() throws IOException {
+        minecraftServer.close();
+    }
+
+    @Test
+    @DisplayName("Should not cap concurrent requests at the Tomcat thread count when RCON is slow")
+    void shouldServeConcurrentRequestsBeyondTomcatThreadCount() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/resources"))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> result = response.get(30, TimeUnit.SECONDS);
+            assertEquals(200, result.statusCode());
+            assertTrue(result.body().contains("\"tps1m\":20.0"), result.body());
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String summary = String.format("%d requests in %dms (%.1f requests/s), %d RCON commands in flight at most",
+                                       REQUESTS, elapsedMs, REQUESTS * 1000.0 / elapsedMs, maxInFlight.get());
+
+        // Platform threads would allow TOMCAT_THREADS requests at a time and need
+        // REQUESTS / TOMCAT_THREADS * REQUEST_DELAY_MS = 5 seconds
+        assertTrue(maxInFlight.get() > TOMCAT_THREADS, summary);
+        assertTrue(elapsedMs < REQUESTS / TOMCAT_THREADS * REQUEST_DELAY_MS, summary);
+    }
+}
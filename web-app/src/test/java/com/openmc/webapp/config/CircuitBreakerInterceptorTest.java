@@ -0,0 +1,126 @@
+package com.openmc.webapp.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CircuitBreakerInterceptor Tests")
+class CircuitBreakerInterceptorTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MS = 10000;
+    private static final byte[] BODY = new byte[0];
+
+    private AtomicLong now;
+    private CircuitBreakerInterceptor circuitBreaker;
+    private HttpRequest request;
+    private ClientHttpRequestExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(100000);
+        circuitBreaker = new CircuitBreakerInterceptor(FAILURE_THRESHOLD, OPEN_MS, now::get);
+        request = mock(HttpRequest.class);
+        when(request.getURI()).thenReturn(URI.create("http://tracker:8080/api/stats"));
+        execution = mock(ClientHttpRequestExecution.class);
+    }
+
+    @Test
+    @DisplayName("Should open after consecutive failures and fail fast while open")
+    void shouldOpenAfterConsecutiveFailures() throws Exception {
+        when(execution.execute(any(), any())).thenThrow(new ConnectException("Connection refused"));
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(ConnectException.class, () -> circuitBreaker.intercept(request, BODY, execution));
+        }
+        assertTrue(circuitBreaker.isOpen());
+
+        IOException rejected = assertThrows(IOException.class, () -> circuitBreaker.intercept(request, BODY, execution));
+        assertTrue(rejected.getMessage().contains("Circuit open"));
+        verify(execution, times(FAILURE_THRESHOLD)).execute(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should count server errors as failures")
+    void shouldCountServerErrorsAsFailures() throws Exception {
+        ClientHttpResponse response = response(HttpStatus.SERVICE_UNAVAILABLE);
+        when(execution.execute(any(), any())).thenReturn(response);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertSame(response, circuitBreaker.intercept(request, BODY, execution));
+        }
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count after a success")
+    void shouldResetFailureCountAfterSuccess() throws Exception {
+        ClientHttpResponse ok = response(HttpStatus.OK);
+        when(execution.execute(any(), any()))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenReturn(ok)
+                .thenThrow(new ConnectException("Connection refused"));
+
+        for (int i = 0; i < 4; i++) {
+            try {
+                circuitBreaker.intercept(request, BODY, execution);
+            } catch (ConnectException e) {
+                // Expected for the failing calls
+            }
+        }
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("Should close again after a successful trial call once the open period ends")
+    void shouldCloseAfterSuccessfulTrialCall() throws Exception {
+        ClientHttpResponse ok = response(HttpStatus.OK);
+        when(execution.execute(any(), any()))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenReturn(ok);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(ConnectException.class, () -> circuitBreaker.intercept(request, BODY, execution));
+        }
+
+        now.addAndGet(OPEN_MS);
+        assertSame(ok, circuitBreaker.intercept(request, BODY, execution));
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("Should open again when the trial call fails")
+    void shouldReopenWhenTrialCallFails() throws Exception {
+        when(execution.execute(any(), any())).thenThrow(new ConnectException("Connection refused"));
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(ConnectException.class, () -> circuitBreaker.intercept(request, BODY, execution));
+        }
+
+        now.addAndGet(OPEN_MS);
+        assertThrows(ConnectException.class, () -> circuitBreaker.intercept(request, BODY, execution));
+        IOException rejected = assertThrows(IOException.class, () -> circuitBreaker.intercept(request, BODY, execution));
+        assertTrue(rejected.getMessage().contains("Circuit open"));
+        verify(execution, times(FAILURE_THRESHOLD + 1)).execute(any(), any());
+    }
+
+    private static ClientHttpResponse response(HttpStatus status) throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        return response;
+    }
+}
@@ -0,0 +1,62 @@
+package com.openmc.webapp.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ConcurrencyLimitInterceptor Tests")
+class ConcurrencyLimitInterceptorTest {
+
+    private static final byte[] BODY = new byte[0];
+
+    private ConcurrencyLimitInterceptor limiter;
+    private HttpRequest request;
+    private ClientHttpRequestExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ConcurrencyLimitInterceptor(1, 50);
+        request = mock(HttpRequest.class);
+        when(request.getURI()).thenReturn(URI.create("http://tracker:8080/api/leaderboard"));
+        execution = mock(ClientHttpRequestExecution.class);
+    }
+
+    @Test
+    @DisplayName("Should hold the slot until the response is closed")
+    void shouldHoldSlotUntilResponseClosed() throws Exception {
+        when(execution.execute(any(), any())).thenAnswer(invocation -> mock(ClientHttpResponse.class));
+
+        ClientHttpResponse streaming = limiter.intercept(request, BODY, execution);
+        // The body has not been read yet, so there is no free slot
+        IOException rejected = assertThrows(IOException.class, () -> limiter.intercept(request, BODY, execution));
+        assertTrue(rejected.getMessage().contains("Too many concurrent requests"));
+
+        streaming.close();
+        streaming.close();
+        limiter.intercept(request, BODY, execution).close();
+        limiter.intercept(request, BODY, execution).close();
+        verify(execution, times(3)).execute(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should give the slot back when the request fails")
+    void shouldReleaseSlotWhenRequestFails() throws Exception {
+        when(execution.execute(any(), any())).thenThrow(new ConnectException("Connection refused"))
+                .thenAnswer(invocation -> mock(ClientHttpResponse.class));
+
+        assertThrows(ConnectException.class, () -> limiter.intercept(request, BODY, execution));
+
+        assertDoesNotThrow(() -> limiter.intercept(request, BODY, execution).close());
+    }
+}
@@ -145,4 +145,28 @@ class ServerConfigTest {
         serverConfig.setRefreshIntervalMs(60000);
         assertEquals(60000, serverConfig.getRefreshIntervalMs());
     }
+
+    @Test
+    @DisplayName("Should have stale-while-revalidate disabled by default")
+    void shouldHaveStaleWhileRevalidateDisabledByDefault() {
+        assertFalse(serverConfig.isStaleWhileRevalidate());
+        assertEquals(3600000, serverConfig.getMaxStalenessMs());
+    }
+
+    @Test
+    @DisplayName("Should allow enabling stale-while-revalidate")
+    void shouldAllowEnablingStaleWhileRevalidate() {
+        serverConfig.setStaleWhileRevalidate(true);
+        serverConfig.setMaxStalenessMs(60000);
+        assertTrue(serverConfig.isStaleWhileRevalidate());
+        assertEquals(60000, serverConfig.getMaxStalenessMs());
+    }
+
+    @Test
+    @DisplayName("Should have a default RCON probe deadline")
+    void shouldHaveDefaultRconProbeDeadline() {
+        assertEquals(5000, serverConfig.getRconProbeDeadlineMs());
+        serverConfig.setRconProbeDeadlineMs(1000);
+        assertEquals(1000, serverConfig.getRconProbeDeadlineMs());
+    }
 }
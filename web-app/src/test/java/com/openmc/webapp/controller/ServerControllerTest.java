@@ -1,8 +1,12 @@
 package com.openmc.webapp.controller;
 
 import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.LeaderboardEntry;
 import com.openmc.webapp.service.ActivityTrackerService;
+import com.openmc.webapp.service.LeaderboardIndex;
 import com.openmc.webapp.service.RconService;
+import com.openmc.webapp.service.StatusBroadcaster;
+import com.openmc.webapp.service.StatusHistory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -11,16 +15,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
 
 @WebMvcTest(ServerController.class)
 @DisplayName("ServerController Tests")
@@ -37,12 +46,15 @@ class ServerControllerTest {
     
     @MockBean
     private ActivityTrackerService activityTrackerService;
+    
+    @MockBean
+    private StatusBroadcaster statusBroadcaster;
 
     private RconService.ServerStatus mockStatus;
 
     @BeforeEach
     void setUp() {
-        RconService.ResourceUsage mockResourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ResourceUsage mockResourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         mockStatus = new RconService.ServerStatus(serverConfig, "There are 0 of a max of 20 players online", mockResourceUsage);
         
         when(serverConfig.getMotd()).thenReturn("Test Server");
@@ -93,17 +105,83 @@ class ServerControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("Should open a status event stream on GET /api/status/stream")
+    void shouldOpenStatusEventStream() throws Exception {
+        when(statusBroadcaster.subscribe()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/status/stream"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
     @Test
     @DisplayName("Should return resource usage on GET /api/resources")
     void shouldReturnResourceUsageOnGetApiResources() throws Exception {
-        RconService.ResourceUsage mockResourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ResourceUsage mockResourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         when(rconService.getResourceUsage()).thenReturn(mockResourceUsage);
 
         mockMvc.perform(get("/api/resources"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.tps").value("20.0, 20.0, 20.0"))
-                .andExpect(jsonPath("$.memoryUsed").value("1024MB"));
+                .andExpect(jsonPath("$.tps1m").value(20.0))
+                .andExpect(jsonPath("$.memoryUsedBytes").value(1024L * 1024 * 1024));
+    }
+
+    @Test
+    @DisplayName("Should return downsampled history on GET /api/history/series")
+    void shouldReturnHistorySeries() throws Exception {
+        StatusHistory.Series series = new StatusHistory.Series("1h", new long[] {0}, new int[] {1}, new double[] {1.0},
+                new double[] {3.0}, new Double[] {null}, new Double[] {1024.0}, new Double[] {2048.0});
+        when(rconService.getHistorySeries(eq(StatusHistory.Resolution.HOUR), any(), any())).thenReturn(series);
+
+        mockMvc.perform(get("/api/history/series").param("resolution", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("1h"))
+                .andExpect(jsonPath("$.playerCount[0]").value(3.0))
+                .andExpect(jsonPath("$.tps[0]").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Should return one page of the leaderboard with the total player count")
+    void shouldReturnLeaderboardPage() throws Exception {
+        List<LeaderboardEntry> entries = List.of(new LeaderboardEntry("uuid-2", "Bob", 80.0, 30));
+        when(activityTrackerService.getLeaderboardPage(1, 1)).thenReturn(new LeaderboardIndex.Page(entries, 1, 25000));
+
+        mockMvc.perform(get("/api/activity-tracker/leaderboard").param("offset", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "25000"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].playerName").value("Bob"));
+    }
+
+    @Test
+    @DisplayName("Should return a player's rank, or 404 if they are not on the leaderboard")
+    void shouldReturnPlayerRank() throws Exception {
+        when(activityTrackerService.getPlayerRank("uuid-2")).thenReturn(
+                new LeaderboardIndex.PlayerRank(2, new LeaderboardEntry("uuid-2", "Bob", 80.0, 30), 25000));
+
+        mockMvc.perform(get("/api/activity-tracker/leaderboard/uuid-2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(2))
+                .andExpect(jsonPath("$.entry.playerName").value("Bob"))
+                .andExpect(jsonPath("$.totalPlayers").value(25000));
+        mockMvc.perform(get("/api/activity-tracker/leaderboard/uuid-9"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should reject an oversized leaderboard page")
+    void shouldRejectOversizedLeaderboardPage() throws Exception {
+        mockMvc.perform(get("/api/activity-tracker/leaderboard").param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown history resolution")
+    void shouldRejectUnknownHistoryResolution() throws Exception {
+        mockMvc.perform(get("/api/history/series").param("resolution", "2m"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -17,7 +17,7 @@ class RetrievalRecordTest {
         Instant timestamp = Instant.now();
         boolean success = true;
         int playerCount = 5;
-        ResourceUsage resourceUsage = new ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        ResourceUsage resourceUsage = new ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         
         RetrievalRecord record = new RetrievalRecord(timestamp, success, playerCount, resourceUsage);
         
@@ -25,8 +25,8 @@ class RetrievalRecordTest {
         assertTrue(record.isSuccess());
         assertEquals(5, record.getPlayerCount());
         assertNotNull(record.getResourceUsage());
-        assertEquals("20.0, 20.0, 20.0", record.getResourceUsage().getTps());
-        assertEquals("1024MB", record.getResourceUsage().getMemoryUsed());
+        assertEquals(20.0, record.getResourceUsage().getTps1m(), 0.01);
+        assertEquals(1024L * 1024 * 1024, record.getResourceUsage().getMemoryUsedBytes());
     }
 
     @Test
@@ -35,21 +35,22 @@ class RetrievalRecordTest {
         Instant timestamp = Instant.now();
         boolean success = false;
         int playerCount = 0;
-        ResourceUsage resourceUsage = new ResourceUsage("N/A", "N/A", "N/A", "N/A", 0.0);
+        ResourceUsage resourceUsage = ResourceUsage.unavailable();
         
         RetrievalRecord record = new RetrievalRecord(timestamp, success, playerCount, resourceUsage);
         
         assertFalse(record.isSuccess());
         assertEquals(0, record.getPlayerCount());
         assertNotNull(record.getResourceUsage());
-        assertEquals("N/A", record.getResourceUsage().getTps());
+        assertFalse(record.getResourceUsage().isTpsAvailable());
+        assertFalse(record.getResourceUsage().isMemoryAvailable());
     }
 
     @Test
     @DisplayName("Should preserve timestamp")
     void shouldPreserveTimestamp() {
         Instant before = Instant.now();
-        ResourceUsage resourceUsage = new ResourceUsage("N/A", "N/A", "N/A", "N/A", 0.0);
+        ResourceUsage resourceUsage = ResourceUsage.unavailable();
         RetrievalRecord record = new RetrievalRecord(before, true, 0, resourceUsage);
         Instant after = Instant.now();
         
@@ -62,15 +63,17 @@ class RetrievalRecordTest {
     @DisplayName("Should include resource usage statistics")
     void shouldIncludeResourceUsageStatistics() {
         Instant timestamp = Instant.now();
-        ResourceUsage resourceUsage = new ResourceUsage("19.5, 19.8, 20.0", "512MB", "1024MB", "512MB", 50.0);
+        ResourceUsage resourceUsage = new ResourceUsage(19.5, 19.8, 20.0, 512L * 1024 * 1024, 1024L * 1024 * 1024);
         
         RetrievalRecord record = new RetrievalRecord(timestamp, true, 3, resourceUsage);
         
         assertNotNull(record.getResourceUsage());
-        assertEquals("19.5, 19.8, 20.0", record.getResourceUsage().getTps());
-        assertEquals("512MB", record.getResourceUsage().getMemoryUsed());
-        assertEquals("1024MB", record.getResourceUsage().getMemoryMax());
-        assertEquals("512MB", record.getResourceUsage().getMemoryFree());
+        assertEquals(19.5, record.getResourceUsage().getTps1m(), 0.01);
+        assertEquals(19.8, record.getResourceUsage().getTps5m(), 0.01);
+        assertEquals(20.0, record.getResourceUsage().getTps15m(), 0.01);
+        assertEquals(512L * 1024 * 1024, record.getResourceUsage().getMemoryUsedBytes());
+        assertEquals(1024L * 1024 * 1024, record.getResourceUsage().getMemoryMaxBytes());
+        assertEquals(512L * 1024 * 1024, record.getResourceUsage().getMemoryFreeBytes());
         assertEquals(50.0, record.getResourceUsage().getMemoryUsedPercent(), 0.01);
     }
 }
@@ -1,13 +1,24 @@
 package com.openmc.webapp.service;
 
+import com.openmc.webapp.config.HttpClientConfig;
 import com.openmc.webapp.config.ServerConfig;
 import com.openmc.webapp.model.ActivityTrackerStats;
 import com.openmc.webapp.model.LeaderboardEntry;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,7 +31,8 @@ class ActivityTrackerServiceTest {
     @BeforeEach
     void setUp() {
         serverConfig = new ServerConfig();
-        activityTrackerService = new ActivityTrackerService(serverConfig);
+        activityTrackerService = new ActivityTrackerService(serverConfig,
+                new HttpClientConfig().activityTrackerRestTemplate(serverConfig));
     }
 
     @Test
@@ -65,7 +77,7 @@ class ActivityTrackerServiceTest {
     void shouldReturnEmptyLeaderboardWhenDisabled() {
         serverConfig.setActivityTrackerEnabled(false);
         
-        List<LeaderboardEntry> leaderboard = activityTrackerService.getLeaderboard();
+        List<LeaderboardEntry> leaderboard = activityTrackerService.getLeaderboardPage(0, 10).entries();
         
         assertNotNull(leaderboard);
         assertTrue(leaderboard.isEmpty());
@@ -92,7 +104,7 @@ class ActivityTrackerServiceTest {
         });
         
         assertDoesNotThrow(() -> {
-            List<LeaderboardEntry> leaderboard = activityTrackerService.getLeaderboard();
+            List<LeaderboardEntry> leaderboard = activityTrackerService.getLeaderboardPage(0, 10).entries();
             assertTrue(leaderboard.isEmpty());
         });
         
@@ -101,4 +113,113 @@ class ActivityTrackerServiceTest {
             assertFalse(healthy);
         });
     }
+
+    @Test
+    @DisplayName("Should cache stats and fall back to them when the API fails")
+    void shouldCacheStatsAndFallBackWhenApiFails() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/stats", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "{\"uniqueLogins\":5,\"totalLogins\":12}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(failing.get() ? 500 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            serverConfig.setActivityTrackerEnabled(true);
+            serverConfig.setActivityTrackerUrl("http://localhost:" + server.getAddress().getPort());
+            serverConfig.setActivityTrackerStatsTtlMs(500);
+
+            assertEquals(12, activityTrackerService.getStats().getTotalLogins());
+            assertEquals(12, activityTrackerService.getStats().getTotalLogins());
+            assertEquals(1, requests.get());
+
+            // Let the cached stats expire and break the API
+            Thread.sleep(600);
+            failing.set(true);
+            ActivityTrackerStats stale = activityTrackerService.getStats();
+            assertEquals(2, requests.get());
+            assertNotNull(stale);
+            assertEquals(5, stale.getUniqueLogins());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should sync the leaderboard index from changes since the last sync")
+    void shouldSyncLeaderboardIndexFromChanges() throws Exception {
+        List<String> queries = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/leaderboard", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(String.valueOf(query));
+            String json = query == null
+                    ? "[{\"playerUuid\":\"a\",\"playerName\":\"Alice\",\"hoursPlayed\":10,\"totalLogins\":4}," +
+                      "{\"playerUuid\":\"b\",\"playerName\":\"Bob\",\"hoursPlayed\":20,\"totalLogins\":6}]"
+                    : "[{\"playerUuid\":\"a\",\"playerName\":\"Alice\",\"hoursPlayed\":30,\"totalLogins\":5}]";
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            serverConfig.setActivityTrackerEnabled(true);
+            serverConfig.setActivityTrackerUrl("http://localhost:" + server.getAddress().getPort());
+            serverConfig.setActivityTrackerLeaderboardTtlMs(500);
+
+            assertEquals("Bob", activityTrackerService.getLeaderboardPage(0, 10).entries().get(0).getPlayerName());
+            assertEquals(2, activityTrackerService.getPlayerRank("a").rank());
+            assertNull(activityTrackerService.getPlayerRank("unknown"));
+            assertEquals(List.of("null"), queries);
+
+            // Once the TTL passes only the changed entry is fetched and applied
+            Thread.sleep(600);
+            LeaderboardIndex.PlayerRank alice = activityTrackerService.getPlayerRank("a");
+            assertEquals(2, queries.size());
+            assertTrue(queries.get(1).startsWith("since="));
+            assertEquals(1, alice.rank());
+            assertEquals(30.0, alice.entry().getHoursPlayed(), 0.001);
+            assertEquals(2, alice.totalPlayers());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should give up on a hung API after the read timeout")
+    void shouldGiveUpOnHungApiAfterReadTimeout() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/stats", exchange -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            serverConfig.setActivityTrackerEnabled(true);
+            serverConfig.setActivityTrackerUrl("http://localhost:" + server.getAddress().getPort());
+            serverConfig.setActivityTrackerReadTimeoutMs(300);
+            ActivityTrackerService service = new ActivityTrackerService(serverConfig,
+                    new HttpClientConfig().activityTrackerRestTemplate(serverConfig));
+
+            long start = System.nanoTime();
+            assertNull(service.getStats());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+        } finally {
+            server.stop(0);
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.model.LeaderboardEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LeaderboardIndex Tests")
+class LeaderboardIndexTest {
+
+    @Test
+    @DisplayName("Should rank players by hours played, then by total logins")
+    void shouldRankByHoursThenLogins() {
+        LeaderboardIndex index = new LeaderboardIndex(100);
+        index.upsert(new LeaderboardEntry("1", "Low", 1.5, 3));
+        index.upsert(new LeaderboardEntry("2", "High", 90.0, 50));
+        index.upsert(new LeaderboardEntry("3", "Fewer", 40.0, 2));
+        index.upsert(new LeaderboardEntry("4", "More", 40.0, 9));
+
+        LeaderboardIndex.Page page = index.page(0, 10);
+
+        assertEquals(4, page.totalPlayers());
+        assertEquals(List.of("High", "More", "Fewer", "Low"), names(page.entries()));
+        assertEquals(40.0, page.entries().get(1).getHoursPlayed(), 0.001);
+        assertEquals("4", page.entries().get(1).getPlayerUuid());
+    }
+
+    @Test
+    @DisplayName("Should move a player when their entry changes")
+    void shouldMovePlayerWhenEntryChanges() {
+        LeaderboardIndex index = new LeaderboardIndex(100);
+        index.upsert(new LeaderboardEntry("1", "Alice", 10.0, 5));
+        index.upsert(new LeaderboardEntry("2", "Bob", 20.0, 5));
+        assertEquals(2, index.rankOf("1").rank());
+
+        index.upsert(new LeaderboardEntry("1", "Alice", 25.0, 6));
+
+        LeaderboardIndex.PlayerRank rank = index.rankOf("1");
+        assertEquals(1, rank.rank());
+        assertEquals(25.0, rank.entry().getHoursPlayed(), 0.001);
+        assertEquals(2, rank.totalPlayers());
+        assertEquals(2, index.rankOf("2").rank());
+        assertNull(index.rankOf("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should page through the ranking")
+    void shouldPageThroughRanking() {
+        LeaderboardIndex index = new LeaderboardIndex(100);
+        index.upsert(new LeaderboardEntry("a", "A", 3, 0));
+        index.upsert(new LeaderboardEntry("b", "B", 2, 0));
+        index.upsert(new LeaderboardEntry("c", "C", 1, 0));
+
+        assertEquals(List.of("B", "C"), names(index.page(1, 5).entries()));
+        assertTrue(index.page(3, 5).entries().isEmpty());
+        assertEquals(List.of("A"), names(index.page(0, 1).entries()));
+    }
+
+    @Test
+    @DisplayName("Should drop the lowest ranked players beyond the maximum")
+    void shouldDropLowestRankedBeyondMaximum() {
+        LeaderboardIndex index = new LeaderboardIndex(2);
+        index.upsert(new LeaderboardEntry("1", "Mid", 5, 0));
+        index.upsert(new LeaderboardEntry("2", "High", 9, 0));
+        index.upsert(new LeaderboardEntry("3", "Low", 1, 0));
+
+        assertEquals(2, index.size());
+        assertNull(index.rankOf("3"));
+
+        // A dropped player comes back once they rank high enough
+        index.upsert(new LeaderboardEntry("3", "Low", 7, 0));
+        assertEquals(2, index.rankOf("3").rank());
+        assertNull(index.rankOf("1"));
+    }
+
+    @Test
+    @DisplayName("Should key entries without a UUID by name and ignore entries with neither")
+    void shouldKeyEntriesWithoutUuidByName() {
+        LeaderboardIndex index = new LeaderboardIndex(100);
+        index.upsert(new LeaderboardEntry(null, "Steve", 1, 1));
+        index.upsert(new LeaderboardEntry(null, "Steve", 2, 1));
+        index.upsert(new LeaderboardEntry(null, null, 3, 1));
+
+        assertEquals(1, index.size());
+        assertEquals(2.0, index.page(0, 1).entries().get(0).getHoursPlayed(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should rank unnamed players after named ones with the same stats")
+    void shouldRankUnnamedPlayersLastAmongEqualStats() {
+        List<LeaderboardEntry> entries = List.of(
+                new LeaderboardEntry("u1", null, 5, 1),
+                new LeaderboardEntry("u2", "Bob", 5, 1),
+                new LeaderboardEntry("u3", null, 5, 1),
+                new LeaderboardEntry("u4", "Alice", 5, 1),
+                new LeaderboardEntry("u0", "Carl", 5, 1));
+        List<String> expected = List.of("u4", "u2", "u0", "u1", "u3");
+
+        Random random = new Random(7);
+        for (int attempt = 0; attempt < 50; attempt++) {
+            List<LeaderboardEntry> shuffled = new ArrayList<>(entries);
+            Collections.shuffle(shuffled, random);
+            LeaderboardIndex index = new LeaderboardIndex(100);
+            shuffled.forEach(index::upsert);
+
+            assertEquals(expected, index.page(0, 10).entries().stream()
+                    .map(LeaderboardEntry::getPlayerUuid).toList());
+            for (int rank = 1; rank <= expected.size(); rank++) {
+                assertEquals(rank, index.rankOf(expected.get(rank - 1)).rank());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a full sort after many random updates")
+    void shouldMatchFullSortAfterRandomUpdates() {
+        LeaderboardIndex index = new LeaderboardIndex(10000);
+        LeaderboardEntry[] latest = new LeaderboardEntry[2000];
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int player = random.nextInt(latest.length);
+            LeaderboardEntry entry = new LeaderboardEntry("uuid-" + player, "player" + player,
+                    random.nextInt(500), random.nextInt(50));
+            latest[player] = entry;
+            index.upsert(entry);
+        }
+
+        List<LeaderboardEntry> expected = new ArrayList<>();
+        for (LeaderboardEntry entry : latest) {
+            if (entry != null) {
+                expected.add(entry);
+            }
+        }
+        expected.sort(Comparator.comparingDouble(LeaderboardEntry::getHoursPlayed).reversed()
+                .thenComparing(Comparator.comparingInt(LeaderboardEntry::getTotalLogins).reversed())
+                .thenComparing(LeaderboardEntry::getPlayerName));
+
+        assertEquals(expected.size(), index.size());
+        assertEquals(names(expected), names(index.page(0, expected.size()).entries()));
+        assertEquals(names(expected.subList(100, 150)), names(index.page(100, 50).entries()));
+        for (int rank = 1; rank <= expected.size(); rank += 97) {
+            assertEquals(rank, index.rankOf(expected.get(rank - 1).getPlayerUuid()).rank());
+        }
+    }
+
+    private static List<String> names(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getPlayerName).toList();
+    }
+}
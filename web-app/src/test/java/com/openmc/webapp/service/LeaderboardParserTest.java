@@ -0,0 +1,70 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.model.LeaderboardEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LeaderboardParser Tests")
+class LeaderboardParserTest {
+
+    private final LeaderboardParser parser = new LeaderboardParser();
+
+    @Test
+    @DisplayName("Should pass every entry to the consumer in order")
+    void shouldPassEveryEntryToConsumer() throws IOException {
+        String json = "[" +
+                "{\"playerUuid\":\"1\",\"playerName\":\"Low\",\"hoursPlayed\":1.5,\"totalLogins\":3}," +
+                "{\"playerUuid\":\"2\",\"playerName\":\"High\",\"hoursPlayed\":90.0,\"totalLogins\":50}," +
+                "{\"playerUuid\":\"3\",\"playerName\":\"Mid\",\"hoursPlayed\":40.25,\"totalLogins\":20}" +
+                "]";
+        List<LeaderboardEntry> entries = new ArrayList<>();
+
+        int count = parser.parse(stream(json), entries::add);
+
+        assertEquals(3, count);
+        assertEquals(List.of("Low", "High", "Mid"), entries.stream().map(LeaderboardEntry::getPlayerName).toList());
+        assertEquals(40.25, entries.get(2).getHoursPlayed(), 0.001);
+        assertEquals(20, entries.get(2).getTotalLogins());
+        assertEquals("3", entries.get(2).getPlayerUuid());
+    }
+
+    @Test
+    @DisplayName("Should skip unknown fields and nulls")
+    void shouldSkipUnknownFieldsAndNulls() throws IOException {
+        String json = "[{\"playerName\":null,\"lastSeen\":{\"world\":\"overworld\",\"at\":[1,2]}," +
+                "\"hoursPlayed\":3.0,\"totalLogins\":4,\"badges\":[\"a\",\"b\"]}]";
+        List<LeaderboardEntry> entries = new ArrayList<>();
+
+        assertEquals(1, parser.parse(stream(json), entries::add));
+
+        LeaderboardEntry entry = entries.get(0);
+        assertNull(entry.getPlayerName());
+        assertEquals(3.0, entry.getHoursPlayed(), 0.001);
+        assertEquals(4, entry.getTotalLogins());
+    }
+
+    @Test
+    @DisplayName("Should read an empty leaderboard")
+    void shouldReadEmptyLeaderboard() throws IOException {
+        assertEquals(0, parser.parse(stream("[]"), entry -> fail("No entries expected")));
+    }
+
+    @Test
+    @DisplayName("Should reject a response that is not an array")
+    void shouldRejectNonArrayResponse() {
+        assertThrows(IOException.class, () -> parser.parse(stream("{\"error\":\"oops\"}"), entry -> { }));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
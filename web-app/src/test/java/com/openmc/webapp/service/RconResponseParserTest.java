@@ -0,0 +1,126 @@
+package com.openmc.webapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RconResponseParser Tests")
+class RconResponseParserTest {
+
+    private static final long MB = 1024L * 1024;
+
+    private final RconResponseParser parser = new RconResponseParser();
+
+    @Test
+    @DisplayName("Should parse vanilla and Paper player lists")
+    void shouldParseVanillaPlayerList() {
+        RconResponseParser.PlayerCount players = parser.parseList("There are 3 of a max of 20 players online: a, b, c");
+
+        assertEquals(3, players.online());
+        assertEquals(20, players.max());
+    }
+
+    @Test
+    @DisplayName("Should parse colored Bukkit player lists")
+    void shouldParseColoredBukkitPlayerList() {
+        RconResponseParser.PlayerCount players = parser.parseList("§6There are §c12§6/§c50§6 players online:");
+
+        assertEquals(12, players.online());
+        assertEquals(50, players.max());
+    }
+
+    @Test
+    @DisplayName("Should return null for unrecognised list output")
+    void shouldReturnNullForUnrecognisedList() {
+        assertNull(parser.parseList("Unknown command"));
+        assertNull(parser.parseList(null));
+    }
+
+    @Test
+    @DisplayName("Should parse plain TPS output")
+    void shouldParsePlainTps() {
+        RconResponseParser.Tps tps = parser.parseTps("TPS from last 1m, 5m, 15m: 19.5, 19.8, 20.0");
+
+        assertEquals(19.5, tps.oneMinute(), 0.001);
+        assertEquals(19.8, tps.fiveMinutes(), 0.001);
+        assertEquals(20.0, tps.fifteenMinutes(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should parse colored and capped Paper TPS output")
+    void shouldParseColoredPaperTps() {
+        RconResponseParser.Tps tps = parser.parseTps("§6TPS from last 1m, 5m, 15m: §a*20.0§6, §a19.97§6, §e17.5");
+
+        assertEquals(20.0, tps.oneMinute(), 0.001);
+        assertEquals(19.97, tps.fiveMinutes(), 0.001);
+        assertEquals(17.5, tps.fifteenMinutes(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should only read the TPS line of multi-line output")
+    void shouldOnlyReadTpsLine() {
+        RconResponseParser.Tps tps = parser.parseTps("TPS from last 1m: 18.0\nMemory: 1024MB/2048MB");
+
+        assertEquals(18.0, tps.oneMinute(), 0.001);
+        assertTrue(Double.isNaN(tps.fiveMinutes()));
+    }
+
+    @Test
+    @DisplayName("Should parse memory with units on both values")
+    void shouldParseMemoryWithUnits() {
+        RconResponseParser.Memory memory = parser.parseMemory("Mem: 50.0% 1024MB/2048MB");
+
+        assertEquals(1024 * MB, memory.usedBytes());
+        assertEquals(2048 * MB, memory.maxBytes());
+    }
+
+    @Test
+    @DisplayName("Should parse Forge memory usage")
+    void shouldParseForgeMemory() {
+        RconResponseParser.Memory memory = parser.parseMemory(
+                "Overall: Mean tick time: 2.1 ms. Current Memory Usage: 401/2048 mb (Max: 3072 mb)");
+
+        assertEquals(401 * MB, memory.usedBytes());
+        assertEquals(2048 * MB, memory.maxBytes());
+    }
+
+    @Test
+    @DisplayName("Should convert gigabytes")
+    void shouldConvertGigabytes() {
+        RconResponseParser.Memory memory = parser.parseMemory("Memory: 1.5G/4G");
+
+        assertEquals(1536 * MB, memory.usedBytes());
+        assertEquals(4096 * MB, memory.maxBytes());
+    }
+
+    @Test
+    @DisplayName("Should return null when no memory is reported")
+    void shouldReturnNullWithoutMemory() {
+        assertNull(parser.parseMemory("TPS from last 1m, 5m, 15m: 20.0, 20.0, 20.0"));
+    }
+
+    @Test
+    @DisplayName("Should parse per-dimension Forge tick times")
+    void shouldParseForgeDimensions() {
+        RconResponseParser.ForgeTps forgeTps = parser.parseForgeTps(
+                "minecraft:overworld: Mean tick time: 4.215 ms. Mean TPS: 20.000\n"
+                + "§eminecraft:the_nether§r: Mean tick time: 0.5 ms. Mean TPS: 20.000\n"
+                + "Dim -1 (DIM-1): Mean tick time: 62.5 ms. Mean TPS: 16.000\n"
+                + "Overall: Mean tick time: 5.1 ms. Mean TPS: 19.500");
+
+        assertEquals(5.1, forgeTps.meanTickMs(), 0.001);
+        assertEquals(19.5, forgeTps.meanTps(), 0.001);
+        assertEquals(3, forgeTps.dimensions().size());
+        assertEquals("minecraft:overworld", forgeTps.dimensions().get(0).dimension());
+        assertEquals(4.215, forgeTps.dimensions().get(0).meanTickMs(), 0.0001);
+        assertEquals("minecraft:the_nether", forgeTps.dimensions().get(1).dimension());
+        assertEquals(16.0, forgeTps.dimensions().get(2).meanTps(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should return null for non-Forge output")
+    void shouldReturnNullForNonForgeOutput() {
+        assertNull(parser.parseForgeTps("Unknown or incomplete command"));
+    }
+}
@@ -5,7 +5,11 @@ import com.openmc.webapp.model.RetrievalRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -136,9 +140,30 @@ class RconServiceHistoryTest {
         
         RetrievalRecord record = history.get(0);
         assertNotNull(record.getResourceUsage());
-        assertNotNull(record.getResourceUsage().getTps());
-        assertNotNull(record.getResourceUsage().getMemoryUsed());
-        assertNotNull(record.getResourceUsage().getMemoryMax());
-        assertNotNull(record.getResourceUsage().getMemoryFree());
+        // The test server is unreachable, so nothing is known
+        assertFalse(record.getResourceUsage().isTpsAvailable());
+        assertFalse(record.getResourceUsage().isMemoryAvailable());
+        assertNotNull(record.getResourceUsage().getDimensionTickTimes());
+    }
+    
+    @Test
+    @DisplayName("Should reload persisted history after a restart")
+    void shouldReloadPersistedHistoryAfterRestart(@TempDir Path directory) {
+        serverConfig.setHistoryStorePath(directory.toString());
+        RconService first = new RconService(serverConfig);
+        first.getServerStatus();
+        first.shutdown();
+        
+        RconService restarted = new RconService(serverConfig);
+        try {
+            StatusHistory.Series series = restarted.getHistorySeries(StatusHistory.Resolution.HOUR,
+                    Instant.now().minus(1, ChronoUnit.DAYS), Instant.now());
+            
+            assertEquals(1, series.timestamps().length);
+            assertEquals(1, series.samples()[0]);
+            assertEquals(0.0, series.successRatio()[0], 0.001);
+        } finally {
+            restarted.shutdown();
+        }
     }
 }
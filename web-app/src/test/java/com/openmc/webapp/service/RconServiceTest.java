@@ -1,5 +1,6 @@
 package com.openmc.webapp.service;
 
+import com.openmc.rcon.FakeRconServer;
 import com.openmc.webapp.config.ServerConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,7 +71,7 @@ class RconServiceTest {
     @DisplayName("ServerStatus should have correct MOTD from config")
     void serverStatusShouldHaveCorrectMotdFromConfig() {
         serverConfig.setMotd("Test Server MOTD");
-        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         RconService.ServerStatus status = new RconService.ServerStatus(serverConfig, "Player list", resourceUsage);
         
         assertEquals("Test Server MOTD", status.getMotd());
@@ -73,7 +81,7 @@ class RconServiceTest {
     @DisplayName("ServerStatus should have correct max players from config")
     void serverStatusShouldHaveCorrectMaxPlayersFromConfig() {
         serverConfig.setMaxPlayers(50);
-        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         RconService.ServerStatus status = new RconService.ServerStatus(serverConfig, "Player list", resourceUsage);
         
         assertEquals(50, status.getMaxPlayers());
@@ -82,7 +90,7 @@ class RconServiceTest {
     @Test
     @DisplayName("ServerStatus should be online when response is successful")
     void serverStatusShouldBeOnlineWhenResponseIsSuccessful() {
-        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         RconService.ServerStatus status = new RconService.ServerStatus(serverConfig, "There are 0 of a max of 20 players online", resourceUsage);
         
         assertTrue(status.isOnline());
@@ -91,7 +99,7 @@ class RconServiceTest {
     @Test
     @DisplayName("ServerStatus should be offline when response contains error")
     void serverStatusShouldBeOfflineWhenResponseContainsError() {
-        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage("N/A", "N/A", "N/A", "N/A", 0.0);
+        RconService.ResourceUsage resourceUsage = RconService.ResourceUsage.unavailable();
         RconService.ServerStatus status = new RconService.ServerStatus(serverConfig, "Error: Connection failed", resourceUsage);
         
         assertFalse(status.isOnline());
@@ -100,31 +108,35 @@ class RconServiceTest {
     @Test
     @DisplayName("ResourceUsage should store TPS information")
     void resourceUsageShouldStoreTpsInformation() {
-        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         
-        assertEquals("20.0, 20.0, 20.0", resourceUsage.getTps());
+        assertTrue(resourceUsage.isTpsAvailable());
+        assertEquals(20.0, resourceUsage.getTps1m(), 0.01);
+        assertEquals(20.0, resourceUsage.getTps5m(), 0.01);
+        assertEquals(20.0, resourceUsage.getTps15m(), 0.01);
     }
     
     @Test
     @DisplayName("ResourceUsage should store memory information")
     void resourceUsageShouldStoreMemoryInformation() {
-        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
         
-        assertEquals("1024MB", resourceUsage.getMemoryUsed());
-        assertEquals("2048MB", resourceUsage.getMemoryMax());
-        assertEquals("1024MB", resourceUsage.getMemoryFree());
+        assertTrue(resourceUsage.isMemoryAvailable());
+        assertEquals(1024L * 1024 * 1024, resourceUsage.getMemoryUsedBytes());
+        assertEquals(2048L * 1024 * 1024, resourceUsage.getMemoryMaxBytes());
+        assertEquals(1024L * 1024 * 1024, resourceUsage.getMemoryFreeBytes());
         assertEquals(50.0, resourceUsage.getMemoryUsedPercent(), 0.01);
     }
     
     @Test
     @DisplayName("ResourceUsage should handle N/A values")
     void resourceUsageShouldHandleNAValues() {
-        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage("N/A", "N/A", "N/A", "N/A", 0.0);
+        RconService.ResourceUsage resourceUsage = RconService.ResourceUsage.unavailable();
         
-        assertEquals("N/A", resourceUsage.getTps());
-        assertEquals("N/A", resourceUsage.getMemoryUsed());
-        assertEquals("N/A", resourceUsage.getMemoryMax());
-        assertEquals("N/A", resourceUsage.getMemoryFree());
+        assertFalse(resourceUsage.isTpsAvailable());
+        assertFalse(resourceUsage.isMemoryAvailable());
+        assertEquals(0L, resourceUsage.getMemoryUsedBytes());
+        assertEquals(0L, resourceUsage.getMemoryFreeBytes());
         assertEquals(0.0, resourceUsage.getMemoryUsedPercent(), 0.01);
     }
     
@@ -189,4 +201,229 @@ class RconServiceTest {
         assertEquals(firstFetchTime, secondFetchTime);
         assertSame(firstStatus, secondStatus);
     }
+    
+    @Test
+    @DisplayName("Should fetch status with the probes spread over pooled connections")
+    void shouldFetchStatusWithPooledProbes() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> switch (command) {
+            case "list" -> "There are 3 of a max of 20 players online: a, b, c";
+            case "tps" -> "TPS from last 1m, 5m, 15m: 19.5, 19.8, 20.0";
+            case "forge tps" -> "minecraft:overworld: Mean tick time: 2.4 ms. Mean TPS: 20.0\n"
+                + "Overall: Mean tick time: 2.1 ms. Mean TPS: 20.0\n"
+                + "Current Memory Usage: 512/2048 mb (Max: 2048 mb)";
+            default -> "Unknown command";
+        })) {
+            serverConfig.setHost("localhost");
+            serverConfig.setRconPort(server.getPort());
+            serverConfig.setRconPassword("secret");
+            RconService service = new RconService(serverConfig);
+            try {
+                RconService.ServerStatus status = service.getServerStatus();
+                
+                assertTrue(status.isOnline());
+                assertEquals(19.5, status.getResourceUsage().getTps1m(), 0.01);
+                assertEquals(20.0, status.getResourceUsage().getTps15m(), 0.01);
+                assertEquals(512L * 1024 * 1024, status.getResourceUsage().getMemoryUsedBytes());
+                assertEquals(2.1, status.getResourceUsage().getMeanTickMs(), 0.01);
+                assertEquals(List.of(new RconService.DimensionTickTime("minecraft:overworld", 2.4, 20.0)),
+                             status.getResourceUsage().getDimensionTickTimes());
+                assertEquals(25.0, status.getResourceUsage().getMemoryUsedPercent(), 0.01);
+                assertTrue(server.getConnectionCount() <= serverConfig.getRconPoolSize());
+                assertEquals(3, server.getCommandCount());
+                assertEquals(0, server.getRejectedReadCount());
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should keep the probes that answered when another misses the deadline")
+    void shouldKeepPartialResultsWhenProbeMissesDeadline() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> switch (command) {
+            case "list" -> "There are 2 of a max of 20 players online: a, b";
+            case "tps" -> "TPS from last 1m, 5m, 15m: 18.0, 19.0, 20.0";
+            default -> {
+                sleep(3000);
+                yield "Unknown command";
+            }
+        })) {
+            serverConfig.setHost("localhost");
+            serverConfig.setRconPort(server.getPort());
+            serverConfig.setRconPassword("secret");
+            serverConfig.setRconProbeDeadlineMs(500);
+            RconService service = new RconService(serverConfig);
+            try {
+                long start = System.nanoTime();
+                List<String> responses = service.sendCommands(List.of("list", "tps", "forge tps"));
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                
+                assertEquals("There are 2 of a max of 20 players online: a, b", responses.get(0));
+                assertEquals("TPS from last 1m, 5m, 15m: 18.0, 19.0, 20.0", responses.get(1));
+                assertTrue(responses.get(2).startsWith("Error: Timed out"));
+                assertTrue(elapsedMs < 2000, "Took " + elapsedMs + "ms");
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should give up at the deadline when the server is slow to accept the login")
+    void shouldGiveUpAtDeadlineWhenLoginIsSlow() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> "ran " + command)) {
+            server.setAuthDelayMs(3000);
+            serverConfig.setHost("localhost");
+            serverConfig.setRconPort(server.getPort());
+            serverConfig.setRconPassword("secret");
+            serverConfig.setRconProbeDeadlineMs(500);
+            RconService service = new RconService(serverConfig);
+            try {
+                long start = System.nanoTime();
+                List<String> responses = service.sendCommands(List.of("list", "tps"));
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                
+                assertEquals(2, responses.size());
+                assertTrue(responses.stream().allMatch(response -> response.startsWith("Error: Timed out")));
+                assertTrue(elapsedMs < 1000, "Took " + elapsedMs + "ms");
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should return an error for every command when unable to connect")
+    void shouldReturnErrorForEveryCommandWhenUnableToConnect() {
+        List<String> results = rconService.sendCommands(List.of("list", "tps"));
+        
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(result -> result.startsWith("Error: Unable to connect to server")));
+    }
+    
+    @Test
+    @DisplayName("Should run a single refresh for concurrent requests on a cold cache")
+    void shouldRunSingleRefreshForConcurrentRequests() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> {
+            sleep(200);
+            return "There are 1 of a max of 20 players online: a";
+        })) {
+            serverConfig.setHost("localhost");
+            serverConfig.setRconPort(server.getPort());
+            serverConfig.setRconPassword("secret");
+            RconService service = new RconService(serverConfig);
+            ExecutorService executor = Executors.newFixedThreadPool(10);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<RconService.ServerStatus>> results = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return service.getServerStatus();
+                    }));
+                }
+                start.countDown();
+                
+                RconService.ServerStatus first = results.get(0).get(5, TimeUnit.SECONDS);
+                for (Future<RconService.ServerStatus> result : results) {
+                    assertSame(first, result.get(5, TimeUnit.SECONDS));
+                }
+                assertEquals(3, server.getCommandCount());
+                assertEquals(1, service.getRetrievalHistory().size());
+            } finally {
+                executor.shutdownNow();
+                service.shutdown();
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should serve the previous status while a refresh is in flight")
+    void shouldServePreviousStatusWhileRefreshInFlight() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> {
+            sleep(300);
+            return "There are 1 of a max of 20 players online: a";
+        })) {
+            serverConfig.setHost("localhost");
+            serverConfig.setRconPort(server.getPort());
+            serverConfig.setRconPassword("secret");
+            serverConfig.setRefreshIntervalMs(100);
+            RconService service = new RconService(serverConfig);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                RconService.ServerStatus stale = service.getServerStatus();
+                Thread.sleep(150);
+                
+                Future<RconService.ServerStatus> refreshing = executor.submit(service::getServerStatus);
+                Thread.sleep(50);
+                long startNanos = System.nanoTime();
+                RconService.ServerStatus served = service.getServerStatus();
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                
+                assertSame(stale, served);
+                assertTrue(elapsedMs < 200, "Stale read should not wait for the refresh, took " + elapsedMs + "ms");
+                assertNotSame(stale, refreshing.get(5, TimeUnit.SECONDS));
+            } finally {
+                executor.shutdownNow();
+                service.shutdown();
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should return the expired status immediately and refresh it in the background")
+    void shouldRefreshInBackgroundWhenStaleWhileRevalidateEnabled() throws Exception {
+        try (FakeRconServer server = new FakeRconServer("secret", command -> {
+            sleep(200);
+            return "There are 1 of a max of 20 players online: a";
+        })) {
+            serverConfig.setHost("localhost");
+            serverConfig.setRconPort(server.getPort());
+            serverConfig.setRconPassword("secret");
+            serverConfig.setRefreshIntervalMs(100);
+            serverConfig.setStaleWhileRevalidate(true);
+            RconService service = new RconService(serverConfig);
+            try {
+                RconService.ServerStatus stale = service.getServerStatus();
+                Instant staleFetchTime = service.getLastFetchTime();
+                Thread.sleep(150);
+                
+                long startNanos = System.nanoTime();
+                RconService.ServerStatus served = service.getServerStatus();
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                
+                assertSame(stale, served);
+                assertTrue(elapsedMs < 100, "Stale read should not wait on RCON, took " + elapsedMs + "ms");
+                long deadline = System.currentTimeMillis() + 5000;
+                while (staleFetchTime.equals(service.getLastFetchTime()) && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(20);
+                }
+                assertTrue(service.getLastFetchTime().isAfter(staleFetchTime));
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should wait for a fresh status once the max staleness is exceeded")
+    void shouldWaitForFreshStatusBeyondMaxStaleness() throws Exception {
+        serverConfig.setRefreshIntervalMs(50);
+        serverConfig.setStaleWhileRevalidate(true);
+        serverConfig.setMaxStalenessMs(100);
+        
+        RconService.ServerStatus first = rconService.getServerStatus();
+        Thread.sleep(150);
+        RconService.ServerStatus second = rconService.getServerStatus();
+        
+        assertNotSame(first, second);
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("StatusBroadcaster Tests")
+class StatusBroadcasterTest {
+
+    private RconService rconService;
+    private StatusBroadcaster statusBroadcaster;
+
+    @BeforeEach
+    void setUp() {
+        rconService = mock(RconService.class);
+        statusBroadcaster = new StatusBroadcaster(rconService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statusBroadcaster.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should not touch RCON while nobody is subscribed")
+    void shouldNotPollWithoutSubscribers() {
+        statusBroadcaster.broadcastIfChanged();
+
+        verify(rconService, never()).getServerStatus();
+    }
+
+    @Test
+    @DisplayName("Should send the current status on subscribe")
+    void shouldSendCurrentStatusOnSubscribe() throws IOException {
+        when(rconService.getCachedSnapshot()).thenReturn(snapshot());
+        SseEmitter emitter = mock(SseEmitter.class);
+
+        statusBroadcaster.subscribe(emitter);
+
+        verify(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(1, statusBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should broadcast only when the status changes")
+    void shouldBroadcastOnlyWhenStatusChanges() throws IOException {
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        statusBroadcaster.subscribe(first);
+        statusBroadcaster.subscribe(second);
+
+        RconService.StatusSnapshot snapshot = snapshot(0);
+        when(rconService.getCachedSnapshot()).thenReturn(snapshot);
+        statusBroadcaster.broadcastIfChanged();
+        statusBroadcaster.broadcastIfChanged();
+
+        verify(first, timeout(1000).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(second, timeout(1000).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+
+        when(rconService.getCachedSnapshot()).thenReturn(snapshot(1));
+        statusBroadcaster.broadcastIfChanged();
+
+        verify(first, timeout(1000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(rconService, times(3)).getServerStatus();
+    }
+
+    @Test
+    @DisplayName("Should push a change to existing subscribers after a new subscriber has seen it")
+    void shouldBroadcastChangeAlreadySentToNewSubscriber() throws IOException {
+        SseEmitter first = mock(SseEmitter.class);
+        statusBroadcaster.subscribe(first);
+        when(rconService.getCachedSnapshot()).thenReturn(snapshot(0));
+        statusBroadcaster.broadcastIfChanged();
+        verify(first, timeout(1000).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+
+        // The status changes and a new page subscribes before the producer runs again
+        when(rconService.getCachedSnapshot()).thenReturn(snapshot(1));
+        SseEmitter second = mock(SseEmitter.class);
+        statusBroadcaster.subscribe(second);
+        verify(second).send(any(SseEmitter.SseEventBuilder.class));
+        statusBroadcaster.broadcastIfChanged();
+
+        verify(first, timeout(1000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the time of the last change when a refresh finds the same status")
+    void shouldKeepLastChangeWhenStatusIsUnchanged() throws IOException {
+        SseEmitter first = mock(SseEmitter.class);
+        statusBroadcaster.subscribe(first);
+        RconService.StatusSnapshot changed = snapshot(0, Instant.parse("2026-10-17T10:00:00Z"));
+        when(rconService.getCachedSnapshot()).thenReturn(changed);
+        statusBroadcaster.broadcastIfChanged();
+
+        // Refreshed since, with the same status
+        when(rconService.getCachedSnapshot()).thenReturn(snapshot(0, Instant.parse("2026-10-17T10:30:00Z")));
+        statusBroadcaster.broadcastIfChanged();
+        // A page reconnecting after its stream timed out
+        SseEmitter reconnected = mock(SseEmitter.class);
+        statusBroadcaster.subscribe(reconnected);
+
+        verify(first, after(200).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        ArgumentCaptor<SseEmitter.SseEventBuilder> event = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(reconnected).send(event.capture());
+        String sent = event.getValue().build().stream()
+            .map(data -> data.getData().toString())
+            .collect(Collectors.joining());
+        assertTrue(sent.contains("id:2026-10-17T10:00:00Z"), sent);
+    }
+
+    @Test
+    @DisplayName("Should drop subscribers whose connection has failed")
+    void shouldDropFailedSubscribers() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        statusBroadcaster.subscribe(emitter);
+
+        statusBroadcaster.sendHeartbeat();
+
+        verify(emitter, timeout(1000)).completeWithError(any());
+        assertEquals(0, statusBroadcaster.getSubscriberCount());
+    }
+
+    private RconService.StatusSnapshot snapshot() {
+        return snapshot(0);
+    }
+
+    private RconService.StatusSnapshot snapshot(int playersOnline) {
+        return snapshot(playersOnline, Instant.now());
+    }
+
+    private RconService.StatusSnapshot snapshot(int playersOnline, Instant fetchTime) {
+        RconService.ResourceUsage resourceUsage = new RconService.ResourceUsage(20.0, 20.0, 20.0, 1024L * 1024 * 1024, 2048L * 1024 * 1024);
+        RconService.ServerStatus status = new RconService.ServerStatus(new ServerConfig(), "There are " + playersOnline + " of a max of 20 players online", resourceUsage);
+        return new RconService.StatusSnapshot(status, fetchTime);
+    }
+}
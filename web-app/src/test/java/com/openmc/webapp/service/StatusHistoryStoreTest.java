@@ -0,0 +1,115 @@
+package com.openmc.webapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatusHistoryStore Tests")
+class StatusHistoryStoreTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back appended records within a time range")
+    void shouldReadBackRecordsInRange() throws IOException {
+        try (StatusHistoryStore store = new StatusHistoryStore(directory, DAY)) {
+            for (int i = 0; i < 10; i++) {
+                store.append(START + i * MINUTE, i % 2 == 0, i, 20.0 - i, 1024, 2048);
+            }
+
+            List<Long> timestamps = new ArrayList<>();
+            List<Integer> players = new ArrayList<>();
+            store.read(START + 3 * MINUTE, START + 6 * MINUTE, (timestamp, success, playerCount, tps, used, max) -> {
+                timestamps.add(timestamp);
+                players.add(playerCount);
+            });
+
+            assertEquals(List.of(START + 3 * MINUTE, START + 4 * MINUTE, START + 5 * MINUTE, START + 6 * MINUTE), timestamps);
+            assertEquals(List.of(3, 4, 5, 6), players);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep records across a reopen and resume appending")
+    void shouldSurviveReopen() throws IOException {
+        try (StatusHistoryStore store = new StatusHistoryStore(directory, DAY)) {
+            store.append(START, true, 1, 20.0, 1024, 2048);
+        }
+        try (StatusHistoryStore store = new StatusHistoryStore(directory, DAY)) {
+            store.append(START + MINUTE, false, 0, Double.NaN, Double.NaN, Double.NaN);
+
+            assertEquals(2, count(store, START, START + DAY));
+            assertEquals(1, store.getSegmentCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should discard a torn record at the tail after a crash")
+    void shouldRecoverFromTornTail() throws IOException {
+        try (StatusHistoryStore store = new StatusHistoryStore(directory, DAY)) {
+            store.append(START, true, 1, 20.0, 1024, 2048);
+            store.append(START + MINUTE, true, 2, 20.0, 1024, 2048);
+        }
+        // Simulate a half-written third record: timestamp present, checksum missing
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, START + 2 * MINUTE), 2L * StatusHistoryStore.RECORD_SIZE);
+        }
+
+        try (StatusHistoryStore store = new StatusHistoryStore(directory, DAY)) {
+            assertEquals(2, count(store, START, START + DAY));
+
+            store.append(START + 3 * MINUTE, true, 3, 20.0, 1024, 2048);
+            assertEquals(3, count(store, START, START + DAY));
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll segments and delete those past retention")
+    void shouldRollAndCompactSegments() throws IOException {
+        try (StatusHistoryStore store = new StatusHistoryStore(directory, DAY)) {
+            int records = StatusHistoryStore.RECORDS_PER_SEGMENT * 2 + 10;
+            for (int i = 0; i < records; i++) {
+                store.append(START + i * 1000L, true, 1, 20.0, 1024, 2048);
+            }
+            assertEquals(3, store.getSegmentCount());
+            assertEquals(records, count(store, START, START + DAY));
+
+            long afterSecondSegmentStarts = START + (StatusHistoryStore.RECORDS_PER_SEGMENT * 2L) * 1000L;
+            store.compact(afterSecondSegmentStarts + DAY);
+
+            assertEquals(1, store.getSegmentCount());
+            assertEquals(1, segmentFiles().size());
+            assertEquals(10, count(store, START, START + 2 * DAY));
+        }
+    }
+
+    private int count(StatusHistoryStore store, long from, long to) throws IOException {
+        int[] count = new int[1];
+        store.read(from, to, (timestamp, success, playerCount, tps, used, max) -> count[0]++);
+        return count[0];
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
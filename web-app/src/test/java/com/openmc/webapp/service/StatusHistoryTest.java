@@ -0,0 +1,104 @@
+package com.openmc.webapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatusHistory Tests")
+class StatusHistoryTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 3_600_000L;
+
+    private StatusHistory history;
+
+    @BeforeEach
+    void setUp() {
+        // 1 hour of minutes, 1 day of 5 minute rollups, 7 days of hourly rollups
+        history = new StatusHistory(HOUR, 24 * HOUR, 7 * 24 * HOUR);
+    }
+
+    @Test
+    @DisplayName("Should size each tier by its retention")
+    void shouldSizeTiersByRetention() {
+        assertEquals(60, history.getCapacity(StatusHistory.Resolution.MINUTE));
+        assertEquals(288, history.getCapacity(StatusHistory.Resolution.FIVE_MINUTES));
+        assertEquals(168, history.getCapacity(StatusHistory.Resolution.HOUR));
+    }
+
+    @Test
+    @DisplayName("Should average samples that fall into the same bucket")
+    void shouldAverageSamplesInSameBucket() {
+        history.record(0, true, 2, 20.0, 1024, 2048);
+        history.record(10_000, true, 4, 18.0, 512, 2048);
+
+        StatusHistory.Series series = history.series(StatusHistory.Resolution.MINUTE, 0, MINUTE);
+
+        assertArrayEquals(new long[] {0}, series.timestamps());
+        assertArrayEquals(new int[] {2}, series.samples());
+        assertEquals(3.0, series.playerCount()[0], 0.001);
+        assertEquals(19.0, series.tps()[0], 0.001);
+        assertEquals(768.0, series.memoryUsedMb()[0], 0.001);
+        assertEquals(1.0, series.successRatio()[0], 0.001);
+    }
+
+    @Test
+    @DisplayName("Should downsample into 5 minute and hourly rollups")
+    void shouldDownsampleIntoRollups() {
+        for (int minute = 0; minute < 120; minute++) {
+            history.record(minute * MINUTE, true, minute % 2 == 0 ? 10 : 20, 20.0, 1024, 2048);
+        }
+
+        StatusHistory.Series fiveMinutes = history.series(StatusHistory.Resolution.FIVE_MINUTES, 0, 2 * HOUR);
+        StatusHistory.Series hours = history.series(StatusHistory.Resolution.HOUR, 0, 2 * HOUR);
+
+        assertEquals(24, fiveMinutes.timestamps().length);
+        assertEquals(5, fiveMinutes.samples()[0]);
+        assertArrayEquals(new long[] {0, HOUR}, hours.timestamps());
+        assertEquals(60, hours.samples()[1]);
+        assertEquals(15.0, hours.playerCount()[1], 0.001);
+    }
+
+    @Test
+    @DisplayName("Should overwrite the oldest buckets once retention is exceeded")
+    void shouldOverwriteOldestBuckets() {
+        for (int minute = 0; minute < 90; minute++) {
+            history.record(minute * MINUTE, true, minute, 20.0, 1024, 2048);
+        }
+
+        StatusHistory.Series series = history.series(StatusHistory.Resolution.MINUTE, 0, 2 * HOUR);
+
+        assertEquals(60, series.timestamps().length);
+        assertEquals(30 * MINUTE, series.timestamps()[0]);
+        assertEquals(89 * MINUTE, series.timestamps()[59]);
+    }
+
+    @Test
+    @DisplayName("Should report null for values no sample in the bucket had")
+    void shouldReportNullForMissingValues() {
+        // A failed fetch alone in its bucket, then one next to a successful fetch
+        history.record(0, false, 0, Double.NaN, Double.NaN, Double.NaN);
+        history.record(MINUTE, true, 2, 18.0, 512.0, 1024.0);
+        history.record(MINUTE + 30_000, false, 0, Double.NaN, Double.NaN, Double.NaN);
+
+        StatusHistory.Series series = history.series(StatusHistory.Resolution.MINUTE, 0, HOUR);
+
+        assertEquals(0.0, series.successRatio()[0], 0.001);
+        assertNull(series.tps()[0]);
+        assertNull(series.memoryUsedMb()[0]);
+        assertNull(series.memoryMaxMb()[0]);
+        // The failed fetch does not drag the successful one's values down
+        assertEquals(0.5, series.successRatio()[1], 0.001);
+        assertEquals(18.0, series.tps()[1], 0.001);
+        assertEquals(512.0, series.memoryUsedMb()[1], 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown resolutions")
+    void shouldRejectUnknownResolutions() {
+        assertEquals(StatusHistory.Resolution.FIVE_MINUTES, StatusHistory.Resolution.fromLabel("5m"));
+        assertThrows(IllegalArgumentException.class, () -> StatusHistory.Resolution.fromLabel("2m"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.openmc.webapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TtlCache Tests")
+class TtlCacheTest {
+
+    private static final long TTL_MS = 1000;
+    private static final long MAX_STALE_MS = 5000;
+
+    private AtomicLong now;
+    private AtomicInteger loads;
+    private TtlCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(100000);
+        loads = new AtomicInteger();
+        cache = new TtlCache<>(now::get);
+    }
+
+    @Test
+    @DisplayName("Should serve the cached value until the TTL passes")
+    void shouldServeCachedValueUntilTtlPasses() {
+        assertEquals("value 1", cache.get(TTL_MS, MAX_STALE_MS, this::load));
+        now.addAndGet(TTL_MS - 1);
+        assertEquals("value 1", cache.get(TTL_MS, MAX_STALE_MS, this::load));
+        now.addAndGet(1);
+        assertEquals("value 2", cache.get(TTL_MS, MAX_STALE_MS, this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should serve the stale value when a load fails")
+    void shouldServeStaleValueWhenLoadFails() {
+        cache.get(TTL_MS, MAX_STALE_MS, this::load);
+        now.addAndGet(TTL_MS);
+
+        assertEquals("value 1", cache.get(TTL_MS, MAX_STALE_MS, this::fail));
+        // The failure is not retried until another TTL has passed
+        now.addAndGet(TTL_MS - 1);
+        assertEquals("value 1", cache.get(TTL_MS, MAX_STALE_MS, this::load));
+        assertEquals(1, loads.get());
+        now.addAndGet(1);
+        assertEquals("value 2", cache.get(TTL_MS, MAX_STALE_MS, this::load));
+    }
+
+    @Test
+    @DisplayName("Should rethrow the failure once the value is too stale")
+    void shouldRethrowFailureOnceValueIsTooStale() {
+        cache.get(TTL_MS, MAX_STALE_MS, this::load);
+        now.addAndGet(MAX_STALE_MS);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(TTL_MS, MAX_STALE_MS, this::fail));
+    }
+
+    @Test
+    @DisplayName("Should rethrow the failure when nothing is cached")
+    void shouldRethrowFailureWhenNothingIsCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(TTL_MS, MAX_STALE_MS, this::fail));
+        assertEquals("value 1", cache.get(TTL_MS, MAX_STALE_MS, this::load));
+    }
+
+    @Test
+    @DisplayName("Should share one load between concurrent callers")
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        TtlCache<String> realTimeCache = new TtlCache<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> realTimeCache.get(TTL_MS, MAX_STALE_MS, () -> {
+                    awaitQuietly(release);
+                    return load();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value 1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String load() {
+        return "value " + loads.incrementAndGet();
+    }
+
+    private String fail() {
+        throw new IllegalStateException("Backend unavailable");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}